@@ -0,0 +1,65 @@
+package net.ornithemc.mappingutils;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import net.ornithemc.mappingutils.io.Mappings;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DiffBenchmark {
+
+	@Param({ "8000" })
+	public int classes;
+
+	private Mappings a;
+	private Mappings b;
+	private MappingsDiff diff;
+
+	@Setup
+	public void setup() {
+		a = MappingUtils.generateSyntheticMappings(0, classes);
+		diff = MappingUtils.generateSyntheticChanges(a, 1, classes);
+
+		b = a.copy();
+		MappingUtils.applyDiffs(b, diff);
+	}
+
+	@Benchmark
+	public MappingsDiff diffMappings() {
+		return MappingUtils.diffMappings(a, b);
+	}
+
+	@Benchmark
+	public Mappings applyDiffs(Target target) {
+		MappingUtils.applyDiffs(target.mappings, diff);
+		return target.mappings;
+	}
+
+	/**
+	 * Applying a diff changes the mappings, so each invocation is given
+	 * freshly generated mappings to apply it to. A copy of {@code a} would
+	 * be shared with it, and would never be released.
+	 */
+	@State(Scope.Thread)
+	public static class Target {
+
+		private Mappings mappings;
+
+		@Setup(Level.Invocation)
+		public void setup(DiffBenchmark benchmark) {
+			mappings = MappingUtils.generateSyntheticMappings(0, benchmark.classes);
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package net.ornithemc.mappingutils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import net.ornithemc.mappingutils.io.Format;
+import net.ornithemc.mappingutils.io.Mappings;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff;
+import net.ornithemc.mappingutils.io.diff.graph.VersionGraph;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GraphBenchmark {
+
+	@Param({ "8000" })
+	public int classes;
+
+	@Param({ "20" })
+	public int versions;
+
+	private Path dir;
+	private String version;
+	private MappingsDiff changes;
+
+	// propagation changes the graph in memory, so each
+	// invocation is given a freshly resolved graph
+	private VersionGraph graph;
+
+	@Setup
+	public void setup() throws IOException {
+		dir = Files.createTempDirectory("mapping-utils-jmh");
+		version = "v" + (versions / 2);
+
+		MappingUtils.generateSyntheticGraph(Format.TINY_V2, 0, classes, 1, versions - 1, classes / 10, dir);
+
+		Mappings mappings = MappingUtils.separateMappings(VersionGraph.of(Format.TINY_V2, dir), version);
+		changes = MappingUtils.generateSyntheticChanges(mappings, versions, classes / 10);
+	}
+
+	@Setup(Level.Invocation)
+	public void resolve() throws IOException {
+		graph = VersionGraph.of(Format.TINY_V2, dir);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		FileUtils.delete(dir.toFile());
+	}
+
+	@Benchmark
+	public Mappings separateMappings() throws IOException {
+		return MappingUtils.separateMappings(graph, version);
+	}
+
+	@Benchmark
+	public PropagationReport insertMappings() throws IOException {
+		PropagationOptions options = new PropagationOptions.Builder()
+			.dryRun()
+			.build();
+
+		return MappingUtils.insertMappings(options, graph, changes, version);
+	}
+}
@@ -0,0 +1,101 @@
+package net.ornithemc.mappingutils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.ornithemc.mappingutils.io.Mappings;
+import net.ornithemc.mappingutils.io.Mappings.ClassMapping;
+import net.ornithemc.mappingutils.io.Mappings.FieldMapping;
+import net.ornithemc.mappingutils.io.Mappings.MethodMapping;
+
+/**
+ * Looks up the name of every class, field and method in a set of mappings,
+ * through the mappings themselves and through a compiled mapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MapperBenchmark {
+
+	@Param({ "8000" })
+	public int classes;
+
+	private Mapper mapper;
+	private Mapper compiledMapper;
+
+	private List<String> classNames;
+	private List<String[]> fields;
+	private List<String[]> methods;
+
+	@Setup
+	public void setup() {
+		Mappings mappings = MappingUtils.generateSyntheticMappings(0, classes);
+
+		mapper = Mapper.of(mappings);
+		compiledMapper = Mapper.compile(mappings);
+
+		classNames = new ArrayList<>();
+		fields = new ArrayList<>();
+		methods = new ArrayList<>();
+
+		// the names are copied so that lookups
+		// cannot succeed on identity alone
+		for (ClassMapping c : mappings.getClasses()) {
+			classNames.add(new String(c.src()));
+
+			for (FieldMapping f : c.getFields()) {
+				fields.add(new String[] { new String(c.src()), new String(f.src()), new String(f.getDesc()) });
+			}
+			for (MethodMapping m : c.getMethods()) {
+				methods.add(new String[] { new String(c.src()), new String(m.src()), new String(m.getDesc()) });
+			}
+		}
+	}
+
+	@Benchmark
+	public void lookup(Blackhole bh) {
+		lookup(mapper, bh);
+	}
+
+	@Benchmark
+	public void compiledLookup(Blackhole bh) {
+		lookup(compiledMapper, bh);
+	}
+
+	@Benchmark
+	public void methodDescriptors(Blackhole bh) {
+		for (String[] m : methods) {
+			bh.consume(mapper.mapMethodDesc(m[2]));
+		}
+	}
+
+	@Benchmark
+	public void compiledMethodDescriptors(Blackhole bh) {
+		for (String[] m : methods) {
+			bh.consume(compiledMapper.mapMethodDesc(m[2]));
+		}
+	}
+
+	private void lookup(Mapper mapper, Blackhole bh) {
+		for (String c : classNames) {
+			bh.consume(mapper.mapClass(c));
+		}
+		for (String[] f : fields) {
+			bh.consume(mapper.mapField(f[0], f[1], f[2]));
+		}
+		for (String[] m : methods) {
+			bh.consume(mapper.mapMethod(m[0], m[1], m[2]));
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package net.ornithemc.mappingutils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import net.ornithemc.mappingutils.io.Format;
+import net.ornithemc.mappingutils.io.Mappings;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReadBenchmark {
+
+	@Param({ "TINY_V1", "TINY_V2", "ENIGMA_FILE", "ENIGMA_DIR", "BINARY" })
+	public Format format;
+
+	@Param({ "8000" })
+	public int classes;
+
+	private Path dir;
+	private Path mappingsPath;
+
+	@Setup
+	public void setup() throws IOException {
+		dir = Files.createTempDirectory("mapping-utils-jmh");
+		mappingsPath = dir.resolve((format.mappingsExtension() == null) ? "mappings" : "mappings" + format.mappingsExtension());
+
+		format.writeMappings(mappingsPath, MappingUtils.generateSyntheticMappings(0, classes));
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		FileUtils.delete(dir.toFile());
+	}
+
+	@Benchmark
+	public Mappings readMappings() throws IOException {
+		return format.readMappings(mappingsPath);
+	}
+}
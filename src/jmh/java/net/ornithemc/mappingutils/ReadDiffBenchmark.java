@@ -0,0 +1,55 @@
+package net.ornithemc.mappingutils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import net.ornithemc.mappingutils.io.Format;
+import net.ornithemc.mappingutils.io.Mappings;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReadDiffBenchmark {
+
+	// the enigma formats have no diff format of their own
+	@Param({ "TINY_V1", "TINY_V2", "BINARY" })
+	public Format format;
+
+	@Param({ "8000" })
+	public int classes;
+
+	private Path dir;
+	private Path diffPath;
+
+	@Setup
+	public void setup() throws IOException {
+		dir = Files.createTempDirectory("mapping-utils-jmh");
+		diffPath = dir.resolve("diff" + format.diffExtension());
+
+		Mappings mappings = MappingUtils.generateSyntheticMappings(0, classes);
+		format.writeDiff(diffPath, MappingUtils.generateSyntheticChanges(mappings, 1, classes));
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		FileUtils.delete(dir.toFile());
+	}
+
+	@Benchmark
+	public MappingsDiff readDiff() throws IOException {
+		return format.readDiff(diffPath);
+	}
+}
@@ -0,0 +1,84 @@
+package net.ornithemc.mappingutils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.ornithemc.mappingutils.io.Format;
+import net.ornithemc.mappingutils.io.MappingsVisitor;
+import net.ornithemc.mappingutils.io.tiny.TinyTokenizer;
+
+/**
+ * Splits a tiny v2 file of about 500k lines into columns, with
+ * {@code String.split} as the Tiny readers used to and with the
+ * {@link TinyTokenizer} they use now, and visits it without building
+ * a mappings tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TokenizerBenchmark {
+
+	// about 500k lines
+	@Param({ "13000" })
+	public int classes;
+
+	private Path dir;
+	private Path mappingsPath;
+
+	@Setup
+	public void setup() throws IOException {
+		dir = Files.createTempDirectory("mapping-utils-jmh");
+		mappingsPath = dir.resolve("mappings" + Format.TINY_V2.mappingsExtension());
+
+		MappingUtils.generateSyntheticMappings(Format.TINY_V2, 0, classes, mappingsPath);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		FileUtils.delete(dir.toFile());
+	}
+
+	@Benchmark
+	public void splitLines(Blackhole blackhole) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(mappingsPath, StandardCharsets.UTF_8)) {
+			for (String line; (line = reader.readLine()) != null; ) {
+				for (String column : line.split("\t")) {
+					blackhole.consume(column);
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	public void tokenizeLines(Blackhole blackhole) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(mappingsPath, StandardCharsets.UTF_8)) {
+			TinyTokenizer tokenizer = new TinyTokenizer(reader);
+
+			while (tokenizer.nextLine()) {
+				for (int i = 0; i < tokenizer.columnCount(); i++) {
+					blackhole.consume(tokenizer.column(i));
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	public void visitMappings() throws IOException {
+		Format.TINY_V2.visitMappings(mappingsPath, new MappingsVisitor() { });
+	}
+}
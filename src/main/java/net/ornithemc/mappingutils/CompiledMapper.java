@@ -0,0 +1,190 @@
+package net.ornithemc.mappingutils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import net.ornithemc.mappingutils.io.Mappings;
+import net.ornithemc.mappingutils.io.Mappings.ClassMapping;
+import net.ornithemc.mappingutils.io.Mappings.FieldMapping;
+import net.ornithemc.mappingutils.io.Mappings.MethodMapping;
+import net.ornithemc.mappingutils.io.Mappings.ParameterMapping;
+import net.ornithemc.mappingutils.io.MemberKey;
+
+/**
+ * A mapper that looks up names in flat tables built once from a set of
+ * mappings. Classes are found by their full name in a single table, with
+ * their complete mapped names computed up front, and their fields, methods
+ * and parameters in a small open addressing table of their own, without
+ * building any keys.
+ * <br>
+ * Since the tables do not change, translated descriptors are cached too.
+ * Changes made to the mappings after the mapper is compiled are not seen.
+ */
+class CompiledMapper implements Mapper {
+
+	// indices that set fields and methods apart from parameters
+	private static final int FIELD = -2;
+	private static final int METHOD = -1;
+
+	private final Map<String, ClassEntry> classes;
+	private final DescriptorCache descs;
+
+	CompiledMapper(Mappings mappings) {
+		this.classes = new HashMap<>();
+
+		for (ClassMapping c : mappings.getClasses()) {
+			if (classes.containsKey(c.src())) {
+				continue;
+			}
+
+			ClassEntry entry = new ClassEntry(c.get().isEmpty() ? null : c.getComplete());
+
+			for (FieldMapping f : c.getFields()) {
+				if (!f.get().isEmpty()) {
+					entry.put(f.src(), f.getDesc(), FIELD, f.get());
+				}
+			}
+			for (MethodMapping m : c.getMethods()) {
+				if (!m.get().isEmpty()) {
+					entry.put(m.src(), m.getDesc(), METHOD, m.get());
+				}
+
+				for (ParameterMapping p : m.getParameters()) {
+					if (!p.get().isEmpty()) {
+						entry.put(m.src(), m.getDesc(), p.getIndex(), p.get());
+					}
+				}
+			}
+
+			classes.put(c.src(), entry);
+		}
+
+		this.descs = new DescriptorCache(this);
+	}
+
+	@Override
+	public String mapClass(String className) {
+		ClassEntry c = classes.get(className);
+		return (c == null || c.name == null) ? className : c.name;
+	}
+
+	@Override
+	public String mapField(String className, String fieldName, String fieldDesc) {
+		ClassEntry c = classes.get(className);
+		return (c == null) ? fieldName : c.get(fieldName, fieldDesc, FIELD, fieldName);
+	}
+
+	@Override
+	public String mapMethod(String className, String methodName, String methodDesc) {
+		ClassEntry c = classes.get(className);
+		return (c == null) ? methodName : c.get(methodName, methodDesc, METHOD, methodName);
+	}
+
+	@Override
+	public String mapParameter(String className, String methodName, String methodDesc, String parameterName, int index) {
+		ClassEntry c = classes.get(className);
+		return (c == null) ? parameterName : c.get(methodName, methodDesc, index, parameterName);
+	}
+
+	@Override
+	public String mapFieldDesc(String desc) {
+		return descs.translateFieldDescriptor(desc);
+	}
+
+	@Override
+	public String mapMethodDesc(String desc) {
+		return descs.translateMethodDescriptor(desc);
+	}
+
+	/**
+	 * The complete mapped name of a class, and an open addressing table of
+	 * the mapped names of its members by name, descriptor and index.
+	 */
+	private static class ClassEntry {
+
+		private static final String[] NO_MEMBERS = {};
+
+		private final String name;
+
+		private int[] hashes;
+		private int[] indices;
+		private String[] names;
+		private String[] descs;
+		private String[] dsts;
+		private int size;
+
+		ClassEntry(String name) {
+			this.name = name;
+
+			this.dsts = NO_MEMBERS;
+		}
+
+		private static int hash(String name, String desc, int index) {
+			int hash = 31 * MemberKey.hash(name, desc) + index;
+			return hash ^ (hash >>> 16);
+		}
+
+		String get(String name, String desc, int index, String fallback) {
+			if (size == 0) {
+				return fallback;
+			}
+
+			int hash = hash(name, desc, index);
+			int mask = dsts.length - 1;
+
+			for (int slot = hash & mask; dsts[slot] != null; slot = (slot + 1) & mask) {
+				if (hashes[slot] == hash && indices[slot] == index && names[slot].equals(name) && descs[slot].equals(desc)) {
+					return dsts[slot];
+				}
+			}
+
+			return fallback;
+		}
+
+		void put(String name, String desc, int index, String dst) {
+			if (2 * (size + 1) > dsts.length) {
+				grow();
+			}
+
+			int hash = hash(name, desc, index);
+			int mask = dsts.length - 1;
+			int slot = hash & mask;
+
+			for (; dsts[slot] != null; slot = (slot + 1) & mask) {
+				if (hashes[slot] == hash && indices[slot] == index && names[slot].equals(name) && descs[slot].equals(desc)) {
+					// keep the first mapping, like a lookup through the mappings would
+					return;
+				}
+			}
+
+			hashes[slot] = hash;
+			indices[slot] = index;
+			names[slot] = name;
+			descs[slot] = desc;
+			dsts[slot] = dst;
+			size++;
+		}
+
+		private void grow() {
+			int[] oldIndices = indices;
+			String[] oldNames = names;
+			String[] oldDescs = descs;
+			String[] oldDsts = dsts;
+
+			int capacity = Math.max(4, 2 * oldDsts.length);
+
+			hashes = new int[capacity];
+			indices = new int[capacity];
+			names = new String[capacity];
+			descs = new String[capacity];
+			dsts = new String[capacity];
+			size = 0;
+
+			for (int i = 0; i < oldDsts.length; i++) {
+				if (oldDsts[i] != null) {
+					put(oldNames[i], oldDescs[i], oldIndices[i], oldDsts[i]);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package net.ornithemc.mappingutils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A bounded cache of translated field and method descriptors for one
+ * mapper. Tools that remap whole files translate the same descriptors over
+ * and over, so each is translated once and looked up afterwards. The cache
+ * may be shared between threads. Once it is full it is cleared, so that it
+ * follows the descriptors in use rather than the first ones it saw.
+ * <br>
+ * The mapper must not change while the cache is in use.
+ */
+class DescriptorCache {
+
+	static final int DEFAULT_CAPACITY = 1 << 16;
+
+	private final Mapper mapper;
+	private final int capacity;
+
+	// field descriptors never start with '(' and method
+	// descriptors always do, so they can share a table
+	private final Map<String, String> descs;
+
+	DescriptorCache(Mapper mapper) {
+		this(mapper, DEFAULT_CAPACITY);
+	}
+
+	DescriptorCache(Mapper mapper, int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be positive: " + capacity);
+		}
+
+		this.mapper = mapper;
+		this.capacity = capacity;
+
+		this.descs = new ConcurrentHashMap<>();
+	}
+
+	String translateFieldDescriptor(String desc) {
+		String translated = descs.get(desc);
+
+		if (translated == null) {
+			translated = MappingUtils.translateFieldDescriptor(desc, mapper);
+			put(desc, translated);
+		}
+
+		return translated;
+	}
+
+	String translateMethodDescriptor(String desc) {
+		String translated = descs.get(desc);
+
+		if (translated == null) {
+			translated = MappingUtils.translateMethodDescriptor(desc, mapper);
+			put(desc, translated);
+		}
+
+		return translated;
+	}
+
+	private void put(String desc, String translated) {
+		if (descs.size() >= capacity) {
+			descs.clear();
+		}
+
+		descs.put(desc, translated);
+	}
+}
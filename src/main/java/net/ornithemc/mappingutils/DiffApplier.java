@@ -74,7 +74,7 @@ class DiffApplier {
 				throw new IllegalStateException("cannot get mapping of target " + target + " from the root mappings");
 			}
 
-			m = mappings.getClass(key);
+			m = mappings.getMutableClass(key);
 
 			if (op == Operation.ADD) {
 				if (m == null) {
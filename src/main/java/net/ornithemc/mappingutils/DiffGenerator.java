@@ -1,28 +1,36 @@
 package net.ornithemc.mappingutils;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import net.ornithemc.mappingutils.io.MappingTarget;
 import net.ornithemc.mappingutils.io.Mappings;
 import net.ornithemc.mappingutils.io.Mappings.Mapping;
 import net.ornithemc.mappingutils.io.diff.DiffSide;
 import net.ornithemc.mappingutils.io.diff.MappingsDiff;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff.ClassDiff;
 import net.ornithemc.mappingutils.io.diff.MappingsDiff.Diff;
 
 class DiffGenerator {
 
 	static MappingsDiff run(Mappings a, Mappings b) {
-		return new DiffGenerator(a, b).run();
+		return run(a, b, 1);
+	}
+
+	static MappingsDiff run(Mappings a, Mappings b, int threads) {
+		return new DiffGenerator(a, b, threads).run();
 	}
 
 	private final MappingsDiff diff;
 	private final Mappings a;
 	private final Mappings b;
+	private final int threads;
 
-	private final List<MappingPair> mappingPairs;
-
-	private DiffGenerator(Mappings a, Mappings b) {
+	private DiffGenerator(Mappings a, Mappings b, int threads) {
 		if (!a.getSrcNamespace().equals(b.getSrcNamespace())) {
 			throw new IllegalArgumentException("src namespaces do not match!");
 		}
@@ -36,79 +44,90 @@ class DiffGenerator {
 		this.diff = new MappingsDiff();
 		this.a = a;
 		this.b = b;
-
-		this.mappingPairs = new LinkedList<>();
+		this.threads = threads;
 	}
 
 	private MappingsDiff run() {
-		collectMappingPairs();
-		createMappingDiffs();
+		List<MappingPair> classPairs = collectClassPairs();
+
+		if (threads > 1 && classPairs.size() > 1) {
+			run(classPairs, threads);
+		} else {
+			new Generator(diff).run(classPairs);
+		}
 
 		return diff;
 	}
 
-	private void collectMappingPairs() {
+	/**
+	 * Collect the pairs of top level class mappings, in the order in which
+	 * their diffs are generated.
+	 */
+	private List<MappingPair> collectClassPairs() {
+		List<MappingPair> classPairs = new ArrayList<>();
+
 		for (Mapping ma : a.getTopLevelClasses()) {
-			addMappingPair(null, ma, null);
+			classPairs.add(new MappingPair(ma, null));
 		}
 		for (Mapping mb : b.getTopLevelClasses()) {
 			Mapping ma = a.getClass(mb.src());
 
 			if (ma == null) {
-				addMappingPair(null, null, mb);
+				classPairs.add(new MappingPair(null, mb));
 			}
 		}
+
+		return classPairs;
 	}
 
-	private void addMappingPair(MappingPair parent, Mapping a, Mapping b) {
-		if (a == null) {
-			a = findMapping(DiffSide.A, parent, b.target(), b.key());
-		}
-		if (b == null) {
-			b = findMapping(DiffSide.B, parent, a.target(), a.key());
-		}
+	private void run(List<MappingPair> classPairs, int threads) {
+		// each task diffs a contiguous run of top level classes into
+		// a diff of its own, and those are merged in the same order,
+		// so that the result is the same as when it is generated on
+		// a single thread
+		int tasks = Math.min(classPairs.size(), 4 * threads);
+		List<Future<MappingsDiff>> diffs = new ArrayList<>(tasks);
 
-		MappingPair pair = new MappingPair(a, b);
-		mappingPairs.add(pair);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
 
-		if (a != null) {
-			for (Mapping ca : a.getChildren()) {
-				addMappingPair(pair, ca, null);
-			}
-		}
-		if (b != null) {
-			for (Mapping cb : b.getChildren()) {
-				if (a == null || a.getChild(cb.target(), cb.key()) == null) {
-					addMappingPair(pair, null, cb);
-				}
-			}
-		}
-	}
+		try {
+			for (int i = 0; i < tasks; i++) {
+				List<MappingPair> pairs = classPairs.subList(i * classPairs.size() / tasks, (i + 1) * classPairs.size() / tasks);
 
-	private void createMappingDiffs() {
-		for (MappingPair pair : mappingPairs) {
-			Mapping a = pair.get(DiffSide.A);
-			Mapping b = pair.get(DiffSide.B);
+				diffs.add(executor.submit(() -> {
+					MappingsDiff diff = new MappingsDiff();
+					new Generator(diff).run(pairs);
 
-			if (b == null) {
-				diff(a, b, DiffMode.A);
-			} else if (a == null) {
-				diff(a, b, DiffMode.B);
-			} else {
-				if (MappingsDiff.safeIsDiff(a.get(), b.get())) {
-					diff(a, b, DiffMode.AB);
-				}
-				if (MappingsDiff.safeIsDiff(a.getJavadoc(), b.getJavadoc())) {
-					diff(a, b, DiffMode.JAVADOC);
+					return diff;
+				}));
+			}
+
+			for (Future<MappingsDiff> future : diffs) {
+				try {
+					for (ClassDiff c : new ArrayList<>(future.get().getTopLevelClasses())) {
+						diff.addClass(c);
+					}
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+
+					if (cause instanceof RuntimeException) {
+						throw (RuntimeException)cause;
+					}
+					if (cause instanceof Error) {
+						throw (Error)cause;
+					}
+
+					throw new IllegalStateException("error generating diff", cause);
 				}
 			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while generating diff", e);
+		} finally {
+			executor.shutdownNow();
 		}
 	}
 
-	private void diff(Mapping a, Mapping b, DiffMode mode) {
-		mode.run(a, b, addDiff(a == null ? b : a));
-	}
-
 	public Mapping findMapping(DiffSide side, MappingPair parent, MappingTarget target, String key) {
 		Mapping m = null;
 
@@ -129,38 +148,118 @@ class DiffGenerator {
 		return m;
 	}
 
-	private Diff addDiff(Mapping mapping) {
-		MappingTarget target = mapping.target();
-		String key = mapping.key();
-		Diff d = null;
+	/**
+	 * Find the mapping on the given side with the same target and key as
+	 * the given mapping from the other side, without building its key.
+	 */
+	private Mapping findMapping(DiffSide side, MappingPair parent, Mapping other) {
+		if (parent == null) {
+			return findMapping(side, parent, other.target(), other.src());
+		}
+
+		Mapping parentMapping = parent.get(side);
+		return (parentMapping == null) ? null : parentMapping.getChild(other);
+	}
 
-		Mapping parentMapping = mapping.getParent();
+	/**
+	 * Walks pairs of class mappings and adds the differences between them
+	 * to a diff. The mappings are only read, so several generators can
+	 * walk different classes at the same time.
+	 */
+	private class Generator {
 
-		if (parentMapping == null) {
-			if (target != MappingTarget.CLASS) {
-				throw new IllegalStateException("cannot get diff of target " + target + " from the root diff");
-			}
+		private final MappingsDiff diff;
 
-			d = diff.getClass(key);
+		Generator(MappingsDiff diff) {
+			this.diff = diff;
+		}
 
-			if (d == null) {
-				d = diff.addClass(key, "", "");
+		void run(List<MappingPair> classPairs) {
+			for (MappingPair pair : classPairs) {
+				addMappingPair(null, pair.get(DiffSide.A), pair.get(DiffSide.B));
+			}
+		}
+
+		private void addMappingPair(MappingPair parent, Mapping a, Mapping b) {
+			if (a == null) {
+				a = findMapping(DiffSide.A, parent, b);
+			}
+			if (b == null) {
+				b = findMapping(DiffSide.B, parent, a);
 			}
-		} else {
-			Diff parent = addDiff(parentMapping);
 
-			if (parent == null) {
-				throw new IllegalStateException("unable to get diff for " + parentMapping);
+			MappingPair pair = new MappingPair(a, b);
+			createMappingDiffs(pair);
+
+			if (a != null) {
+				for (Mapping ca : a.getChildren()) {
+					addMappingPair(pair, ca, null);
+				}
 			}
+			if (b != null) {
+				for (Mapping cb : b.getChildren()) {
+					if (a == null || a.getChild(cb) == null) {
+						addMappingPair(pair, null, cb);
+					}
+				}
+			}
+		}
 
-			d = parent.getChild(target, key);
+		private void createMappingDiffs(MappingPair pair) {
+			Mapping a = pair.get(DiffSide.A);
+			Mapping b = pair.get(DiffSide.B);
 
-			if (d == null) {
-				d = parent.addChild(target, key, "", "");
+			if (b == null) {
+				diff(a, b, DiffMode.A);
+			} else if (a == null) {
+				diff(a, b, DiffMode.B);
+			} else {
+				if (MappingsDiff.safeIsDiff(a.get(), b.get())) {
+					diff(a, b, DiffMode.AB);
+				}
+				if (MappingsDiff.safeIsDiff(a.getJavadoc(), b.getJavadoc())) {
+					diff(a, b, DiffMode.JAVADOC);
+				}
 			}
 		}
 
-		return d;
+		private void diff(Mapping a, Mapping b, DiffMode mode) {
+			mode.run(a, b, addDiff(a == null ? b : a));
+		}
+
+		private Diff addDiff(Mapping mapping) {
+			MappingTarget target = mapping.target();
+			String key = mapping.key();
+			Diff d = null;
+
+			Mapping parentMapping = mapping.getParent();
+
+			if (parentMapping == null) {
+				if (target != MappingTarget.CLASS) {
+					throw new IllegalStateException("cannot get diff of target " + target + " from the root diff");
+				}
+
+				d = diff.getClass(key);
+
+				if (d == null) {
+					d = diff.addClass(key, "", "");
+				}
+			} else {
+				Diff parent = addDiff(parentMapping);
+
+				if (parent == null) {
+					throw new IllegalStateException("unable to get diff for " + parentMapping);
+				}
+
+				d = parent.getChild(target, key);
+
+				if (d == null) {
+					d = parent.addChild(target, key, "", "");
+				}
+			}
+
+			return d;
+		}
 	}
 
 	private class MappingPair {
@@ -22,7 +22,7 @@ class ExceptionsMapper {
 	private ExceptionsMapper(ExceptionsFile sigs, Mappings mappings) {
 		this.exceptionsIn = sigs;
 		this.exceptionsOut = new ExceptionsFile(new TreeMap<>());
-		this.mapper = Mapper.of(mappings);
+		this.mapper = Mapper.compile(mappings);
 	}
 
 	private ExceptionsFile run() {
@@ -38,7 +38,7 @@ class ExceptionsMapper {
 				String mtdDescIn = mi.descriptor();
 				List<String> mtdExcsIn = mi.exceptions();
 				String mtdNameOut = mapper.mapMethod(clsNameIn, mtdNameIn, mtdDescIn);
-				String mtdDescOut = MappingUtils.translateMethodDescriptor(mtdDescIn, mapper);
+				String mtdDescOut = mapper.mapMethodDesc(mtdDescIn);
 				List<String> mtdExcsOut = new ArrayList<>(mtdExcsIn.size());
 				for (String exc : mtdExcsIn) {
 					mtdExcsOut.add(mapper.mapClass(exc));
@@ -1,15 +1,24 @@
 package net.ornithemc.mappingutils;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import net.ornithemc.mappingutils.io.MappingTarget;
 import net.ornithemc.mappingutils.io.Mappings.Mapping;
 import net.ornithemc.mappingutils.io.diff.DiffSide;
 import net.ornithemc.mappingutils.io.diff.MappingsDiff.Diff;
 import net.ornithemc.mappingutils.io.diff.graph.MappingHistory;
+import net.ornithemc.mappingutils.io.diff.graph.MappingQuery;
+import net.ornithemc.mappingutils.io.diff.graph.SymbolIndex;
 import net.ornithemc.mappingutils.io.diff.graph.Version;
 import net.ornithemc.mappingutils.io.diff.graph.VersionGraph;
 
@@ -20,24 +29,43 @@ class Finder {
 	}
 
 	static Collection<MappingHistory> run(VersionGraph tree, MappingTarget target, String key) throws IOException {
-		return new Finder(tree, target, key).run();
+		return run(tree, null, target, key);
+	}
+
+	static Collection<MappingHistory> run(VersionGraph tree, SymbolIndex index, MappingTarget target, String key) throws IOException {
+		MappingQuery query = new MappingQuery(target, key);
+		return run(tree, index, Collections.singleton(query)).get(query);
+	}
+
+	static Map<MappingQuery, Collection<MappingHistory>> run(VersionGraph tree, SymbolIndex index, Collection<MappingQuery> queries) throws IOException {
+		return new Finder(tree, index, queries).run();
 	}
 
 	private final VersionGraph graph;
-	private final MappingTarget target;
-	private final String key;
+	private final List<MappingQuery> queries;
 
-	private final Collection<MappingHistory> mappings;
+	// if there is an index, only the mappings and diffs it lists are searched
+	private final Map<MappingQuery, Set<Pair<Version, Version>>> candidates;
 
-	private Finder(VersionGraph graph, MappingTarget target, String key) {
+	private final Map<MappingQuery, Collection<MappingHistory>> mappings;
+
+	private Finder(VersionGraph graph, SymbolIndex index, Collection<MappingQuery> queries) {
 		this.graph = graph;
-		this.target = target;
-		this.key = key;
+		this.queries = new ArrayList<>(new LinkedHashSet<>(queries));
+
+		this.candidates = (index == null) ? null : new HashMap<>();
+		this.mappings = new LinkedHashMap<>();
 
-		this.mappings = new LinkedHashSet<>();
+		for (MappingQuery query : this.queries) {
+			if (index != null) {
+				candidates.put(query, index.find(query.getKey()));
+			}
+
+			mappings.put(query, new LinkedHashSet<>());
+		}
 	}
 
-	private Collection<MappingHistory> run() throws IOException {
+	private Map<MappingQuery, Collection<MappingHistory>> run() throws IOException {
 		Collection<Version> versions = new LinkedList<>();
 		graph.walk(v -> versions.add(v), p -> { });
 
@@ -50,39 +78,72 @@ class Finder {
 
 	private void find(Version v) throws IOException {
 		if (v.isRoot()) {
+			List<MappingQuery> active = activeQueries(v, v);
+
+			if (active.isEmpty()) {
+				return;
+			}
+
 			for (Mapping m : v.getMappings().getTopLevelClasses()) {
-				check(m);
+				check(active, m);
 			}
 		} else {
 			for (Version p : v.getParents()) {
+				List<MappingQuery> active = activeQueries(v, p);
+
+				if (active.isEmpty()) {
+					continue;
+				}
+
 				for (Diff d : v.getDiff(p).getTopLevelClasses()) {
-					check(d);
+					check(active, d);
 				}
 			}
 		}
 	}
 
-	private void check(Mapping m) {
-		if (matches(m)) {
-			mappings.add(MappingHistory.of(m));
+	private List<MappingQuery> activeQueries(Version v, Version p) {
+		if (candidates == null) {
+			return queries;
+		}
+
+		List<MappingQuery> active = new ArrayList<>();
+		Pair<Version, Version> file = new Pair<>(v, p);
+
+		for (MappingQuery query : queries) {
+			if (candidates.get(query).contains(file)) {
+				active.add(query);
+			}
+		}
+
+		return active;
+	}
+
+	private void check(List<MappingQuery> active, Mapping m) {
+		for (MappingQuery query : active) {
+			if (matches(query.getTarget(), query.getKey(), m)) {
+				mappings.get(query).add(MappingHistory.of(m));
+			}
 		}
 
 		for (Mapping cm : m.getChildren()) {
-			check(cm);
+			check(active, cm);
 		}
 	}
 
-	private void check(Diff d) {
-		if (matches(d)) {
-			mappings.add(MappingHistory.of(d));
+	private void check(List<MappingQuery> active, Diff d) {
+		for (MappingQuery query : active) {
+			if (matches(query.getTarget(), query.getKey(), d)) {
+				mappings.get(query).add(MappingHistory.of(d));
+			}
 		}
 
 		for (Diff cd : d.getChildren()) {
-			check(cd);
+			check(active, cd);
 		}
 	}
 
-	private boolean matches(Mapping m) {
+	private static boolean matches(MappingTarget target, String key, Mapping m) {
 		if (target != null && target != m.target()) {
 			return false;
 		}
@@ -119,7 +180,7 @@ class Finder {
 		}
 	}
 
-	private boolean matches(Diff d) {
+	private static boolean matches(MappingTarget target, String key, Diff d) {
 		if (target != null && target != d.target()) {
 			return false;
 		}
@@ -1,13 +1,28 @@
 package net.ornithemc.mappingutils;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import net.ornithemc.mappingutils.io.MappingTarget;
+import net.ornithemc.mappingutils.io.Mappings;
 import net.ornithemc.mappingutils.io.Mappings.Mapping;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff;
 import net.ornithemc.mappingutils.io.diff.MappingsDiff.Diff;
 import net.ornithemc.mappingutils.io.diff.graph.MappingHistory;
+import net.ornithemc.mappingutils.io.diff.graph.MappingQuery;
+import net.ornithemc.mappingutils.io.diff.graph.SymbolIndex;
 import net.ornithemc.mappingutils.io.diff.graph.Version;
 import net.ornithemc.mappingutils.io.diff.graph.VersionGraph;
 
@@ -18,121 +33,255 @@ class HistoryFinder {
 	}
 
 	static Collection<MappingHistory> run(VersionGraph tree, MappingTarget target, String key) throws IOException {
-		Collection<MappingHistory> histories = Finder.run(tree, target, key);
+		return run(tree, null, target, key);
+	}
 
-		for (MappingHistory history : histories) {
-			run(tree, history);
+	static Collection<MappingHistory> run(VersionGraph tree, SymbolIndex index, MappingTarget target, String key) throws IOException {
+		MappingQuery query = new MappingQuery(target, key);
+		return run(tree, index, Collections.singleton(query), 1).get(query);
+	}
+
+	static Map<MappingQuery, Collection<MappingHistory>> run(VersionGraph tree, SymbolIndex index, Collection<MappingQuery> queries, int threads) throws IOException {
+		Map<MappingQuery, Collection<MappingHistory>> histories = Finder.run(tree, index, queries);
+		Collection<MappingHistory> all = new ArrayList<>();
+
+		for (Collection<MappingHistory> h : histories.values()) {
+			all.addAll(h);
 		}
 
+		find(tree, index, all, threads);
+
 		return histories;
 	}
 
 	static void run(VersionGraph tree, MappingHistory history) throws IOException {
-		new HistoryFinder(tree, history).run();
+		find(tree, null, Collections.singleton(history), 1);
+	}
+
+	static void find(VersionGraph tree, SymbolIndex index, Collection<MappingHistory> histories, int threads) throws IOException {
+		new HistoryFinder(tree, index, histories, threads).run();
 	}
 
 	private final VersionGraph graph;
-	private final MappingHistory history;
+	private final int threads;
+
+	// the histories to find, by the keys of their parents
+	private final Node histories;
 
-	private HistoryFinder(VersionGraph graph, MappingHistory history) {
+	// if there is an index, only the mappings and diffs it lists are searched
+	private final Set<Pair<Version, Version>> candidates;
+
+	private HistoryFinder(VersionGraph graph, SymbolIndex index, Collection<MappingHistory> histories, int threads) {
 		this.graph = graph;
-		this.history = history;
+		this.threads = threads;
+
+		this.histories = new Node();
+		this.candidates = (index == null) ? null : new HashSet<>();
+
+		for (MappingHistory history : histories) {
+			this.histories.add(history);
+
+			if (index != null) {
+				candidates.addAll(index.find(history.getKey()));
+			}
+		}
 	}
 
 	private void run() throws IOException {
 		Collection<Version> versions = new LinkedList<>();
 		graph.walk(v -> versions.add(v), p -> { });
 
+		List<Pair<Version, Version>> files = new ArrayList<>();
+
 		for (Version v : versions) {
-			find(v);
+			for (Version p : v.isRoot() ? Collections.singleton(v) : v.getParents()) {
+				if (candidates == null || candidates.contains(new Pair<>(v, p))) {
+					files.add(new Pair<>(v, p));
+				}
+			}
+		}
+
+		if (threads > 1) {
+			run(files, threads);
+		} else {
+			for (Pair<Version, Version> file : files) {
+				Version v = file.left;
+				Version p = file.right;
+
+				if (v.isRoot()) {
+					set(v, p, find(v.getMappings()), null);
+				} else {
+					set(v, p, null, find(v.getDiff(p)));
+				}
+			}
 		}
 	}
 
-	private void find(Version v) throws IOException {
-		if (v.isRoot()) {
-			for (Mapping m : v.getMappings().getTopLevelClasses()) {
-				m = find(m);
+	private void run(List<Pair<Version, Version>> files, int threads) throws IOException {
+		List<Future<List<Pair<MappingHistory, Mapping>>>> mappings = new ArrayList<>(files.size());
+		List<Future<List<Pair<MappingHistory, Diff>>>> diffs = new ArrayList<>(files.size());
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
 
-				if (m != null) {
-					history.setMapping(v, m);
+		try {
+			// versions are not thread-safe, so the
+			// mappings and diffs are fetched here
+			for (Pair<Version, Version> file : files) {
+				Version v = file.left;
+				Version p = file.right;
+
+				if (v.isRoot()) {
+					Mappings m = v.getMappings();
+
+					mappings.add(executor.submit(() -> find(m)));
+					diffs.add(null);
+				} else {
+					MappingsDiff d = v.getDiff(p);
+
+					mappings.add(null);
+					diffs.add(executor.submit(() -> find(d)));
 				}
 			}
-		} else {
-			for (Version p : v.getParents()) {
-				for (Diff d : v.getDiff(p).getTopLevelClasses()) {
-					d = find(d);
 
-					if (d != null && d.isDiff()) {
-						history.setDiff(p, v, d);
+			// histories are not thread-safe either,
+			// so the results are handed to them here
+			for (int i = 0; i < files.size(); i++) {
+				Version v = files.get(i).left;
+				Version p = files.get(i).right;
+
+				try {
+					if (v.isRoot()) {
+						set(v, p, mappings.get(i).get(), null);
+					} else {
+						set(v, p, null, diffs.get(i).get());
+					}
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+
+					if (cause instanceof RuntimeException) {
+						throw (RuntimeException)cause;
 					}
+
+					throw new IOException("error finding mapping histories in " + v, cause);
 				}
 			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted while finding mapping histories", e);
+		} finally {
+			executor.shutdownNow();
 		}
 	}
 
-	private Mapping find(Mapping m) {
-		if (matches(m)) {
-			return m;
+	private void set(Version v, Version p, List<Pair<MappingHistory, Mapping>> mappings, List<Pair<MappingHistory, Diff>> diffs) {
+		if (mappings != null) {
+			for (Pair<MappingHistory, Mapping> found : mappings) {
+				found.left.setMapping(v, found.right);
+			}
 		}
+		if (diffs != null) {
+			for (Pair<MappingHistory, Diff> found : diffs) {
+				if (found.right.isDiff()) {
+					found.left.setDiff(p, v, found.right);
+				}
+			}
+		}
+	}
 
-		for (Mapping cm : m.getChildren()) {
-			m = find(cm);
+	private List<Pair<MappingHistory, Mapping>> find(Mappings mappings) {
+		List<Pair<MappingHistory, Mapping>> found = new ArrayList<>();
 
-			if (m != null) {
-				return m;
-			}
+		for (Mapping m : mappings.getTopLevelClasses()) {
+			find(histories, m, found);
 		}
 
-		return null;
+		return found;
 	}
 
-	private Diff find(Diff d) {
-		if (matches(d)) {
-			return d;
+	private List<Pair<MappingHistory, Diff>> find(MappingsDiff diff) {
+		List<Pair<MappingHistory, Diff>> found = new ArrayList<>();
+
+		for (Diff d : diff.getTopLevelClasses()) {
+			find(histories, d, found);
 		}
 
-		for (Diff cd : d.getChildren()) {
-			d = find(cd);
+		return found;
+	}
+
+	private static void find(Node parent, Mapping m, List<Pair<MappingHistory, Mapping>> found) {
+		Node node = parent.get(m.target(), m.key());
 
-			if (d != null) {
-				return d;
+		if (node != null) {
+			for (MappingHistory history : node.histories) {
+				found.add(new Pair<>(history, m));
 			}
-		}
 
-		return null;
+			if (node.children != null) {
+				for (Mapping cm : m.getChildren()) {
+					find(node, cm, found);
+				}
+			}
+		}
 	}
 
-	private boolean matches(Mapping m) {
-		return matches(history, m);
-	}
+	private static void find(Node parent, Diff d, List<Pair<MappingHistory, Diff>> found) {
+		Node node = parent.get(d.target(), d.key());
 
-	private boolean matches(Diff d) {
-		return matches(history, d);
-	}
+		if (node != null) {
+			for (MappingHistory history : node.histories) {
+				found.add(new Pair<>(history, d));
+			}
 
-	private static boolean matches(MappingHistory h, Mapping m) {
-		if (h == null && m == null) {
-			return true; // both null: match
-		}
-		if (h == null || m == null) {
-			return false; // only one of them null: no match
+			if (node.children != null) {
+				for (Diff cd : d.getChildren()) {
+					find(node, cd, found);
+				}
+			}
 		}
-
-		return matches(h, m.target(), m.key()) && matches(h.getParent(), m.getParent());
 	}
 
-	private static boolean matches(MappingHistory h, Diff d) {
-		if (h == null && d == null) {
-			return true; // both null: match
+	/**
+	 * The histories to find, arranged by the targets and keys of their
+	 * parents, so that only the mappings that lead to one of them need
+	 * to be visited.
+	 */
+	private static class Node {
+
+		private final List<MappingHistory> histories = new ArrayList<>();
+		private Map<MappingTarget, Map<String, Node>> children;
+
+		void add(MappingHistory history) {
+			List<MappingHistory> path = new ArrayList<>();
+
+			for (MappingHistory h = history; h != null; h = h.getParent()) {
+				path.add(h);
+			}
+
+			Node node = this;
+
+			for (int i = path.size() - 1; i >= 0; i--) {
+				MappingHistory h = path.get(i);
+				node = node.getOrAdd(h.getTarget(), h.getKey());
+			}
+
+			node.histories.add(history);
 		}
-		if (h == null || d == null) {
-			return false; // only one of them null: no match
+
+		Node get(MappingTarget target, String key) {
+			if (children == null) {
+				return null;
+			}
+
+			Map<String, Node> nodes = children.get(target);
+			return (nodes == null) ? null : nodes.get(key);
 		}
 
-		return matches(h, d.target(), d.key()) && matches(h.getParent(), d.getParent());
-	}
+		private Node getOrAdd(MappingTarget target, String key) {
+			if (children == null) {
+				children = new HashMap<>();
+			}
 
-	private static boolean matches(MappingHistory h, MappingTarget target, String key) {
-		return h.getTarget() == target && h.getKey().equals(key);
+			return children.computeIfAbsent(target, t -> new HashMap<>()).computeIfAbsent(key, k -> new Node());
+		}
 	}
 }
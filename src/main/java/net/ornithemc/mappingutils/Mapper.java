@@ -65,6 +65,17 @@ public interface Mapper {
 		};
 	}
 
+	/**
+	 * Compile the given mappings into a mapper that looks up every name in
+	 * a single probe of a flat table. This is faster than {@link #of} when
+	 * mapping many names, but changes made to the mappings afterwards are
+	 * not reflected in the compiled mapper. Translated descriptors are
+	 * cached as well.
+	 */
+	public static Mapper compile(Mappings mappings) {
+		return new CompiledMapper(mappings);
+	}
+
 	default void apply(Mappings mappings) {
 		apply(this, mappings);
 	}
@@ -131,4 +142,12 @@ public interface Mapper {
 
 	String mapParameter(String className, String methodName, String methodDesc, String parameterName, int index);
 
+	default String mapFieldDesc(String desc) {
+		return MappingUtils.translateFieldDescriptor(desc, this);
+	}
+
+	default String mapMethodDesc(String desc) {
+		return MappingUtils.translateMethodDescriptor(desc, this);
+	}
+
 }
@@ -22,6 +22,8 @@ import net.ornithemc.mappingutils.io.MappingTarget;
 import net.ornithemc.mappingutils.io.Mappings;
 import net.ornithemc.mappingutils.io.diff.MappingsDiff;
 import net.ornithemc.mappingutils.io.diff.graph.MappingHistory;
+import net.ornithemc.mappingutils.io.diff.graph.MappingQuery;
+import net.ornithemc.mappingutils.io.diff.graph.SymbolIndex;
 import net.ornithemc.mappingutils.io.diff.graph.Version;
 import net.ornithemc.mappingutils.io.diff.graph.VersionGraph;
 import net.ornithemc.mappingutils.io.matcher.MatchSide;
@@ -43,6 +45,10 @@ public class MappingUtils {
 	}
 
 	public static void diffMappings(Format format, Path pathA, Path pathB, Path diffPath) throws IOException {
+		diffMappings(format, pathA, pathB, diffPath, 1);
+	}
+
+	public static void diffMappings(Format format, Path pathA, Path pathB, Path diffPath, int threads) throws IOException {
 		FileUtils.requireReadable(pathA);
 		FileUtils.requireReadable(pathB);
 		FileUtils.requireWritable(diffPath);
@@ -50,13 +56,37 @@ public class MappingUtils {
 		Mappings a = format.readMappings(pathA);
 		Mappings b = format.readMappings(pathB);
 
-		format.writeDiff(diffPath, diffMappings(a, b));
+		format.writeDiff(diffPath, diffMappings(a, b, threads));
+	}
+
+	/**
+	 * Generate the diff between two sorted tiny files, as written after
+	 * {@link Mappings#sort()}, without reading either file completely. Only
+	 * the top level classes need to be in sorted order. The diff is written
+	 * sorted, and only one top level class of each file is kept in memory
+	 * at a time.
+	 */
+	public static void diffSortedMappings(Format format, Path pathA, Path pathB, Path diffPath) throws IOException {
+		FileUtils.requireReadable(pathA);
+		FileUtils.requireReadable(pathB);
+		FileUtils.requireWritable(diffPath);
+
+		StreamingDiffGenerator.run(format, pathA, pathB, diffPath);
 	}
 
 	public static MappingsDiff diffMappings(Mappings a, Mappings b) {
 		return DiffGenerator.run(a, b);
 	}
 
+	/**
+	 * Generate the diff between the given mappings, diffing different top
+	 * level classes on the given number of threads. The result is the same
+	 * as when the diff is generated on a single thread.
+	 */
+	public static MappingsDiff diffMappings(Mappings a, Mappings b, int threads) {
+		return DiffGenerator.run(a, b, threads);
+	}
+
 	public static void applyDiffs(Format format, Path srcPath, Path dstPath, Path... diffPaths) throws IOException {
 		applyDiffs(format, srcPath, dstPath, Arrays.asList(diffPaths));
 	}
@@ -104,18 +134,35 @@ public class MappingUtils {
 		return mappings;
 	}
 
-	public static void insertMappings(Format format, PropagationOptions options, Path dirPath, Path changesPath, String version) throws IOException {
+	public static Mappings separateMappings(VersionGraph graph, String version, VersionCache cache) throws IOException {
+		return cache.get(graph, version);
+	}
+
+	public static void separateAllMappings(Format format, Path dir, Path dstDir, int threads) throws IOException {
+		FileUtils.requireReadable(dir);
+		FileUtils.requireWritable(dstDir);
+
+		VersionGraph graph = VersionGraph.of(format, dir);
+
+		separateAllMappings(graph, dstDir, threads);
+	}
+
+	public static void separateAllMappings(VersionGraph graph, Path dstDir, int threads) throws IOException {
+		VersionSeparator.run(graph, dstDir, threads);
+	}
+
+	public static PropagationReport insertMappings(Format format, PropagationOptions options, Path dirPath, Path changesPath, String version) throws IOException {
 		FileUtils.requireReadable(dirPath);
 		FileUtils.requireReadable(changesPath);
 
 		VersionGraph graph = VersionGraph.of(format, dirPath);
 		MappingsDiff changes = format.readDiff(changesPath);
 
-		insertMappings(options, graph, changes, version);
+		return insertMappings(options, graph, changes, version);
 	}
 
-	public static void insertMappings(PropagationOptions options, VersionGraph graph, MappingsDiff changes, String version) throws IOException {
-		Propagator.run(options, graph, changes, version);
+	public static PropagationReport insertMappings(PropagationOptions options, VersionGraph graph, MappingsDiff changes, String version) throws IOException {
+		return Propagator.run(options, graph, changes, version);
 	}
 
 	public static void generateDummyMappings(Format format, MappingNamespace srcNamespace, MappingNamespace dstNamespace, String classNamePattern, Path jarPath, Path mappingsPath) throws IOException {
@@ -126,6 +173,31 @@ public class MappingUtils {
 		return DummyGenerator.run(srcNamespace, dstNamespace, classNamePattern, jarPath);
 	}
 
+	public static void generateSyntheticMappings(Format format, long seed, int classCount, Path mappingsPath) throws IOException {
+		FileUtils.requireWritable(mappingsPath);
+		format.writeMappings(mappingsPath, generateSyntheticMappings(seed, classCount));
+	}
+
+	public static Mappings generateSyntheticMappings(long seed, int classCount) {
+		return SyntheticGenerator.run(seed, classCount);
+	}
+
+	/**
+	 * Generate a synthetic version graph in the given directory, in which
+	 * each version up to the given depth has the given number of children,
+	 * and each diff makes the given number of changes.
+	 *
+	 * @return the number of versions in the graph
+	 */
+	public static int generateSyntheticGraph(Format format, long seed, int classCount, int branches, int depth, int churn, Path dir) throws IOException {
+		FileUtils.requireWritable(dir);
+		return SyntheticGenerator.run(format, dir, seed, classCount, branches, depth, churn);
+	}
+
+	public static MappingsDiff generateSyntheticChanges(Mappings mappings, long seed, int churn) {
+		return SyntheticGenerator.changes(mappings, seed, churn);
+	}
+
 	public static void applyNests(Format format, Path srcPath, Path dstPath, Path nestsPath) throws IOException {
 		runNester(format, srcPath, dstPath, nestsPath, true);
 	}
@@ -249,7 +321,7 @@ public class MappingUtils {
 	}
 
 	public static Nests mapNests(Nests nests, Mappings mappings) {
-		return mapNests(nests, Mapper.of(mappings));
+		return mapNests(nests, Mapper.compile(mappings));
 	}
 
 	public static Nests mapNests(Nests nests, Mapper mapper) {
@@ -307,35 +379,78 @@ public class MappingUtils {
 		return SignatureMerger.run(client, server);
 	}
 
+	/**
+	 * Find the mappings with the given key in the version graph in the given directory. The
+	 * {@link SymbolIndex} of the graph is used for the lookup, and is stored
+	 * in the {@value SymbolIndex#FILE_NAME} file in that directory.
+	 */
 	public static Collection<MappingHistory> findMappings(Format format, Path dir, MappingTarget target, String key) throws IOException {
 		FileUtils.requireReadable(dir);
 
 		VersionGraph graph = VersionGraph.of(format, dir);
+		SymbolIndex index = SymbolIndex.of(graph, dir);
 
-		return findMappings(graph, target, key);
+		return findMappings(graph, index, target, key);
 	}
 
 	public static Collection<MappingHistory> findMappings(VersionGraph graph, MappingTarget target, String key) throws IOException {
 		return Finder.run(graph, target, key);
 	}
 
+	public static Collection<MappingHistory> findMappings(VersionGraph graph, SymbolIndex index, MappingTarget target, String key) throws IOException {
+		return Finder.run(graph, index, target, key);
+	}
+
+	/**
+	 * Find the histories of the mappings with the given key in the version graph in the given directory. The
+	 * {@link SymbolIndex} of the graph is used for the lookup, and is stored
+	 * in the {@value SymbolIndex#FILE_NAME} file in that directory.
+	 */
 	public static Collection<MappingHistory> findMappingHistories(Format format, Path dir, MappingTarget target, String key) throws IOException {
 		FileUtils.requireReadable(dir);
 
 		VersionGraph graph = VersionGraph.of(format, dir);
+		SymbolIndex index = SymbolIndex.of(graph, dir);
 
-		return findMappingHistories(graph, target, key);
+		return findMappingHistories(graph, index, target, key);
 	}
 
 	public static Collection<MappingHistory> findMappingHistories(VersionGraph graph, MappingTarget target, String key) throws IOException {
 		return HistoryFinder.run(graph, target, key);
 	}
 
-	public static String translateFieldDescriptor(String desc, Mapper mapper) {
-		Type type = Type.getType(desc);
-		type = translateType(type, mapper);
+	public static Collection<MappingHistory> findMappingHistories(VersionGraph graph, SymbolIndex index, MappingTarget target, String key) throws IOException {
+		return HistoryFinder.run(graph, index, target, key);
+	}
+
+	public static Map<MappingQuery, Collection<MappingHistory>> findMappingHistories(Format format, Path dir, Collection<MappingQuery> queries) throws IOException {
+		return findMappingHistories(format, dir, queries, 1);
+	}
+
+	/**
+	 * Find the histories of the mappings for the given queries in the version graph in the given directory. The
+	 * {@link SymbolIndex} of the graph is used for the lookup, and is stored
+	 * in the {@value SymbolIndex#FILE_NAME} file in that directory.
+	 */
+	public static Map<MappingQuery, Collection<MappingHistory>> findMappingHistories(Format format, Path dir, Collection<MappingQuery> queries, int threads) throws IOException {
+		FileUtils.requireReadable(dir);
+
+		VersionGraph graph = VersionGraph.of(format, dir);
+		SymbolIndex index = SymbolIndex.of(graph, dir);
+
+		return findMappingHistories(graph, index, queries, threads);
+	}
+
+	public static Map<MappingQuery, Collection<MappingHistory>> findMappingHistories(VersionGraph graph, Collection<MappingQuery> queries) throws IOException {
+		return findMappingHistories(graph, null, queries, 1);
+	}
 
-		return type.getDescriptor();
+	public static Map<MappingQuery, Collection<MappingHistory>> findMappingHistories(VersionGraph graph, SymbolIndex index, Collection<MappingQuery> queries, int threads) throws IOException {
+		return HistoryFinder.run(graph, index, queries, threads);
+	}
+
+	public static String translateFieldDescriptor(String desc, Mapper mapper) {
+		return translateDescriptor(desc, mapper);
 	}
 
 	public static Map<String, String> buildNestingTranslations(Path nestsPath) {
@@ -359,19 +474,49 @@ public class MappingUtils {
 	}
 
 	public static String translateMethodDescriptor(String desc, Mapper mapper) {
-		Type type = Type.getMethodType(desc);
+		return translateDescriptor(desc, mapper);
+	}
+
+	/**
+	 * Translate the class names in a field or method descriptor. The
+	 * descriptor is scanned directly rather than parsed into {@link Type}s,
+	 * and a new string is only built once a class name actually changes.
+	 */
+	private static String translateDescriptor(String desc, Mapper mapper) {
+		StringBuilder sb = null;
+		int copied = 0;
+
+		for (int i = 0; i < desc.length(); i++) {
+			if (desc.charAt(i) != 'L') {
+				continue;
+			}
 
-		Type[] argTypes = type.getArgumentTypes();
-		Type returnType = type.getReturnType();
+			int end = desc.indexOf(';', i);
 
-		for (int i = 0; i < argTypes.length; i++) {
-			argTypes[i] = translateType(argTypes[i], mapper);
+			if (end < 0) {
+				throw new IllegalArgumentException("invalid descriptor: " + desc);
+			}
+
+			String className = desc.substring(i + 1, end);
+			String mappedName = mapper.mapClass(className);
+
+			if (!mappedName.equals(className)) {
+				if (sb == null) {
+					sb = new StringBuilder(desc.length() + 16);
+				}
+
+				sb.append(desc, copied, i + 1).append(mappedName);
+				copied = end;
+			}
+
+			i = end;
 		}
-		returnType = translateType(returnType, mapper);
 
-		type = Type.getMethodType(returnType, argTypes);
+		if (sb == null) {
+			return desc;
+		}
 
-		return type.getDescriptor();
+		return sb.append(desc, copied, desc.length()).toString();
 	}
 
 	public static Type translateType(Type type, Mapper mapper) {
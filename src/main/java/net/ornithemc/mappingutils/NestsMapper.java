@@ -49,7 +49,7 @@ class NestsMapper {
 	}
 
 	private String mapMethodDesc(String className, String name, String desc) {
-		return MappingUtils.translateMethodDescriptor(desc, mapper);
+		return mapper.mapMethodDesc(desc);
 	}
 
 	private String mapOuterName(String name, String enclClassName) {
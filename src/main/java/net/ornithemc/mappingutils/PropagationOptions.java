@@ -18,16 +18,25 @@ public class PropagationOptions {
 	 * exception will be thrown.
 	 */
 	public final boolean lenient;
+	/**
+	 * When enabled, changes are propagated in memory only, and the
+	 * version graph is not written. The returned report shows which
+	 * mappings and diffs would have been changed. The graph itself
+	 * is still modified in memory, and should be discarded after.
+	 */
+	public final boolean dryRun;
 
-	private PropagationOptions(PropagationDirection dir, boolean lenient) {
+	private PropagationOptions(PropagationDirection dir, boolean lenient, boolean dryRun) {
 		this.dir = dir;
 		this.lenient = lenient;
+		this.dryRun = dryRun;
 	}
 
 	public static class Builder {
 
 		private PropagationDirection dir = PropagationDirection.BOTH;
 		private boolean lenient = false;
+		private boolean dryRun = false;
 
 		public Builder setPropagationDirection(PropagationDirection dir) {
 			this.dir = dir;
@@ -39,8 +48,13 @@ public class PropagationOptions {
 			return this;
 		}
 
+		public Builder dryRun() {
+			this.dryRun = true;
+			return this;
+		}
+
 		public PropagationOptions build() {
-			return new PropagationOptions(dir, lenient);
+			return new PropagationOptions(dir, lenient, dryRun);
 		}
 	}
 }
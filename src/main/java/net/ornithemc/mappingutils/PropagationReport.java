@@ -0,0 +1,159 @@
+package net.ornithemc.mappingutils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import net.ornithemc.mappingutils.io.MappingTarget;
+
+/**
+ * A report of the changes that propagating mappings made to the mappings
+ * and diffs of a version graph. For the root mappings and for each diff
+ * that was changed, it counts the mappings and javadocs that were added,
+ * changed or removed, per mapping target.
+ */
+public class PropagationReport {
+
+	private final List<Changes> changes;
+
+	PropagationReport() {
+		this.changes = new ArrayList<>();
+	}
+
+	void add(Changes c) {
+		changes.add(c);
+	}
+
+	/**
+	 * The changes to the root mappings and to each diff, in the order
+	 * in which the versions appear in the graph. Mappings and diffs
+	 * that were not changed are not included.
+	 */
+	public List<Changes> getChanges() {
+		return Collections.unmodifiableList(changes);
+	}
+
+	public boolean isEmpty() {
+		return changes.isEmpty();
+	}
+
+	public int count(MappingTarget target, Operation op) {
+		int count = 0;
+
+		for (Changes c : changes) {
+			count += c.count(target, op);
+		}
+
+		return count;
+	}
+
+	public int countJavadocs(MappingTarget target, Operation op) {
+		int count = 0;
+
+		for (Changes c : changes) {
+			count += c.countJavadocs(target, op);
+		}
+
+		return count;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+
+		for (Changes c : changes) {
+			sb.append(c).append(System.lineSeparator());
+		}
+
+		return sb.toString();
+	}
+
+	public enum Operation {
+		ADD, CHANGE, REMOVE
+	}
+
+	/**
+	 * The changes to the mappings of a root version, or to the diff
+	 * between a version and one of its parents.
+	 */
+	public static class Changes {
+
+		private static final MappingTarget[] TARGETS = MappingTarget.values();
+		private static final Operation[] OPERATIONS = Operation.values();
+
+		private final String version;
+		private final String parent;
+
+		private final int[] mappings;
+		private final int[] javadocs;
+
+		Changes(String version, String parent) {
+			this.version = version;
+			this.parent = parent;
+
+			this.mappings = new int[TARGETS.length * OPERATIONS.length];
+			this.javadocs = new int[TARGETS.length * OPERATIONS.length];
+		}
+
+		void record(MappingTarget target, Operation op, boolean javadoc) {
+			(javadoc ? javadocs : mappings)[index(target, op)]++;
+		}
+
+		private static int index(MappingTarget target, Operation op) {
+			return target.ordinal() * OPERATIONS.length + op.ordinal();
+		}
+
+		public String getVersion() {
+			return version;
+		}
+
+		/**
+		 * The parent of the version the diff is from, or {@code null}
+		 * if these are changes to the mappings of the root version.
+		 */
+		public String getParent() {
+			return parent;
+		}
+
+		public int count(MappingTarget target, Operation op) {
+			return mappings[index(target, op)];
+		}
+
+		public int countJavadocs(MappingTarget target, Operation op) {
+			return javadocs[index(target, op)];
+		}
+
+		public int total() {
+			int total = 0;
+
+			for (int i = 0; i < mappings.length; i++) {
+				total += mappings[i] + javadocs[i];
+			}
+
+			return total;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+
+			sb.append(parent == null ? version : (parent + "#" + version));
+			sb.append(":");
+
+			for (MappingTarget target : TARGETS) {
+				for (Operation op : OPERATIONS) {
+					append(sb, target, op, "", count(target, op));
+					append(sb, target, op, " javadoc", countJavadocs(target, op));
+				}
+			}
+
+			return sb.toString();
+		}
+
+		private static void append(StringBuilder sb, MappingTarget target, Operation op, String suffix, int count) {
+			if (count > 0) {
+				sb.append(" ").append(target).append(suffix).append(" ").append(op).append("=").append(count);
+			}
+		}
+	}
+}
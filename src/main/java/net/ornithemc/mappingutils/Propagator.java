@@ -3,6 +3,7 @@ package net.ornithemc.mappingutils;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -28,8 +29,8 @@ import net.ornithemc.mappingutils.io.diff.graph.VersionGraph;
 
 class Propagator {
 
-	static void run(PropagationOptions options, VersionGraph graph, MappingsDiff changes, String version) throws IOException {
-		new Propagator(options, graph, changes, version).run();
+	static PropagationReport run(PropagationOptions options, VersionGraph graph, MappingsDiff changes, String version) throws IOException {
+		return new Propagator(options, graph, changes, version).run();
 	}
 
 	private static final Mode[] PROPAGATION_MODE_ORDER = { Mode.MAPPINGS, Mode.JAVADOCS };
@@ -41,6 +42,9 @@ class Propagator {
 	private final VersionGraph graph;
 
 	private final Collection<Version> barriers;
+	// the changes to the mappings or to each diff, by version and
+	// parent, where the parent of the root is the root itself
+	private final Map<Pair<Version, Version>, PropagationReport.Changes> changed;
 
 	private Map<Version, MappingsDiff> queuedChanges;
 	private Map<Version, MappingsDiff> workingChanges;
@@ -54,6 +58,7 @@ class Propagator {
 		this.graph = graph;
 
 		this.barriers = new HashSet<>();
+		this.changed = new HashMap<>();
 
 		this.queuedChanges = new HashMap<>();
 		this.workingChanges = new HashMap<>();
@@ -76,7 +81,7 @@ class Propagator {
 		queuedChanges.put(v, changes);
 	}
 
-	private void run() throws IOException {
+	private PropagationReport run() throws IOException {
 		while (!queuedChanges.isEmpty()) {
 			prepareQueuedChanges();
 
@@ -85,7 +90,23 @@ class Propagator {
 			}
 		}
 
-		graph.write();
+		if (!options.dryRun) {
+			graph.write();
+		}
+
+		PropagationReport report = new PropagationReport();
+
+		graph.walk(v -> {
+			for (Version p : v.isRoot() ? Collections.singleton(v) : v.getParents()) {
+				PropagationReport.Changes c = changed.get(new Pair<>(v, p));
+
+				if (c != null) {
+					report.add(c);
+				}
+			}
+		}, p -> { });
+
+		return report;
 	}
 
 	private void prepareQueuedChanges() {
@@ -145,12 +166,14 @@ class Propagator {
 			Mapping m = applyChange(v, mappings, change, mode, op);
 
 			if (m != null) {
+				record(v, v, change, mode, op);
+
 				// success, now propagate in opposite direction
 				if (dir == PropagationDirection.UP) {
 					propagation.offer(PropagationDirection.DOWN, v);
 				}
 
-				v.markDirty();
+				markDirty(v);
 			}
 		} else {
 			DiffSide side = (dir == PropagationDirection.UP) ? DiffSide.B : DiffSide.A;
@@ -175,6 +198,8 @@ class Propagator {
 						propagation.offer(dir, v);
 					}
 				} else {
+					record(v, p, change, mode, op);
+
 					// change applied, now propagate in the opposite direction
 					if (dir == PropagationDirection.UP) {
 						propagation.offer(PropagationDirection.DOWN, v);
@@ -183,12 +208,26 @@ class Propagator {
 						queueSiblingChange(v, diffs, d, change, side, dir, mode, op);
 					}
 
-					v.markDirty();
+					markDirty(v);
 				}
 			}
 		}
 	}
 
+	private void record(Version v, Version p, Diff change, Mode mode, Operation op) {
+		changed.computeIfAbsent(new Pair<>(v, p), key -> {
+			return new PropagationReport.Changes(v.toString(), v.isRoot() ? null : p.toString());
+		}).record(change.target(), op.reported(), mode == Mode.JAVADOCS);
+	}
+
+	private void markDirty(Version v) {
+		// in a dry run, nothing should be written, not even
+		// if the graph is written after this propagation
+		if (!options.dryRun) {
+			v.markDirty();
+		}
+	}
+
 	private Mapping applyChange(Version v, Mappings mappings, Diff change, Mode mode, Operation op) {
 		MappingTarget target = change.target();
 		String key = change.key();
@@ -204,7 +243,7 @@ class Propagator {
 				throw new IllegalStateException("cannot get mapping of target " + target + " from the root mappings of " + v);
 			}
 
-			m = mappings.getClass(src);
+			m = mappings.getMutableClass(src);
 		} else {
 			parent = applyChange(v, mappings, parentChange, mode, Operation.NONE);
 
@@ -708,6 +747,19 @@ class Propagator {
 
 		NONE, CHANGE, ADD, REMOVE;
 
+		public PropagationReport.Operation reported() {
+			switch (this) {
+			case CHANGE:
+				return PropagationReport.Operation.CHANGE;
+			case ADD:
+				return PropagationReport.Operation.ADD;
+			case REMOVE:
+				return PropagationReport.Operation.REMOVE;
+			default:
+				throw new IllegalStateException("operation " + this + " cannot be reported!");
+			}
+		}
+
 		public static Operation of(String a, String b) {
 			if (MappingsDiff.safeIsDiff(a, b)) {
 				if (a.isEmpty()) {
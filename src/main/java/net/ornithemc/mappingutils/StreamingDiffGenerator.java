@@ -0,0 +1,235 @@
+package net.ornithemc.mappingutils;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import net.ornithemc.mappingutils.io.Format;
+import net.ornithemc.mappingutils.io.MappingNamespace;
+import net.ornithemc.mappingutils.io.MappingFiles;
+import net.ornithemc.mappingutils.io.MappingTarget;
+import net.ornithemc.mappingutils.io.Mappings;
+import net.ornithemc.mappingutils.io.MappingsBuilder;
+import net.ornithemc.mappingutils.io.MappingsVisitor;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff;
+import net.ornithemc.mappingutils.io.diff.tiny.v1.TinyV1DiffWriter;
+import net.ornithemc.mappingutils.io.diff.tiny.v2.TinyV2DiffWriter;
+import net.ornithemc.mappingutils.io.tiny.TinyMappingsReader;
+import net.ornithemc.mappingutils.io.tiny.v1.TinyV1Reader;
+import net.ornithemc.mappingutils.io.tiny.v2.TinyV2Reader;
+
+/**
+ * Generates the diff between two sorted tiny files without reading either
+ * of them completely. Tiny files list each top level class together with
+ * its members and nested classes, and in sorted files these blocks are in
+ * the order of {@link Mappings#compareKeys}. Both files are read one block
+ * at a time and merged on that order. Each pair of blocks is diffed and
+ * written on its own, so only one class of each file is kept in memory.
+ * <br>
+ * The result is the same as that of {@link DiffGenerator}, sorted.
+ */
+class StreamingDiffGenerator {
+
+	static void run(Format format, Path pathA, Path pathB, Path diffPath) throws IOException {
+		if (format != Format.TINY_V1 && format != Format.TINY_V2) {
+			throw new IllegalArgumentException("format " + format + " does not support streaming diffs");
+		}
+
+		try (BlockReader a = new BlockReader(format, pathA); BlockReader b = new BlockReader(format, pathB)) {
+			run(format, a, b, diffPath);
+		}
+	}
+
+	private static void run(Format format, BlockReader a, BlockReader b, Path diffPath) throws IOException {
+		// the header is read along with the first block
+		boolean hasA = a.next();
+		boolean hasB = b.next();
+
+		if (!a.srcNamespace.equals(b.srcNamespace)) {
+			throw new IllegalArgumentException("src namespaces do not match!");
+		}
+		if (!a.dstNamespace.equals(b.dstNamespace)) {
+			throw new IllegalArgumentException("dst namespaces do not match!");
+		}
+
+		try (BufferedWriter writer = MappingFiles.writer(diffPath)) {
+			// an empty diff is written as just the header
+			format.writeDiff(writer, new MappingsDiff());
+
+			while (hasA || hasB) {
+				int c = !hasA ? 1 : (!hasB ? -1 : Mappings.compareKeys(a.blockKey, b.blockKey));
+				MappingsDiff diff;
+
+				if (c < 0) {
+					diff = DiffGenerator.run(a.block, a.empty());
+					hasA = a.next();
+				} else if (c > 0) {
+					diff = DiffGenerator.run(b.empty(), b.block);
+					hasB = b.next();
+				} else {
+					diff = DiffGenerator.run(a.block, b.block);
+					hasA = a.next();
+					hasB = b.next();
+				}
+
+				diff.sort();
+				append(format, writer, diff);
+			}
+		}
+	}
+
+	private static void append(Format format, BufferedWriter writer, MappingsDiff diff) throws IOException {
+		switch (format) {
+		case TINY_V1:
+			TinyV1DiffWriter.append(writer, diff);
+			break;
+		case TINY_V2:
+			TinyV2DiffWriter.append(writer, diff);
+			break;
+		default:
+			throw new IllegalArgumentException("format " + format + " does not support streaming diffs");
+		}
+	}
+
+	/**
+	 * Splits a tiny file into blocks of one top level class each, and
+	 * collects each block into mappings of its own.
+	 */
+	private static class BlockReader implements MappingsVisitor, Closeable {
+
+		private final Path path;
+		private final TinyMappingsReader reader;
+
+		private MappingNamespace srcNamespace;
+		private MappingNamespace dstNamespace;
+
+		// the block that is being read
+		private MappingsBuilder builder;
+		private String key;
+
+		// the last block that was read completely
+		private Mappings block;
+		private String blockKey;
+
+		BlockReader(Format format, Path path) throws IOException {
+			this.path = path;
+			this.reader = (format == Format.TINY_V1)
+				? TinyV1Reader.reader(path, this)
+				: TinyV2Reader.reader(path, this);
+		}
+
+		/**
+		 * Read the next block.
+		 *
+		 * @return {@code false} if the end of the file was reached
+		 */
+		boolean next() throws IOException {
+			block = null;
+			blockKey = null;
+
+			try {
+				while (block == null && reader.acceptLine()) {
+				}
+			} catch (Exception e) {
+				throw new IOException("error reading " + path.toString(), e);
+			}
+
+			if (srcNamespace == null) {
+				throw new IOException("error reading " + path.toString() + ": missing header");
+			}
+
+			return block != null;
+		}
+
+		@Override
+		public void close() throws IOException {
+			reader.close();
+		}
+
+		Mappings empty() {
+			Mappings mappings = new Mappings();
+
+			mappings.setSrcNamespace(srcNamespace);
+			mappings.setDstNamespace(dstNamespace);
+
+			return mappings;
+		}
+
+		private void endBlock() {
+			block = builder.getMappings();
+			blockKey = key;
+		}
+
+		@Override
+		public void visitHeader(MappingNamespace srcNamespace, MappingNamespace dstNamespace) {
+			this.srcNamespace = srcNamespace;
+			this.dstNamespace = dstNamespace;
+		}
+
+		@Override
+		public boolean visitClass(String src, String dst) {
+			enterBlock(src);
+			return builder.visitClass(src, dst);
+		}
+
+		@Override
+		public boolean revisitClass(String src, String dst) {
+			enterBlock(src);
+			return builder.revisitClass(src, dst);
+		}
+
+		private void enterBlock(String src) {
+			String key = src;
+
+			if (MappingUtils.parseInnerClasses) {
+				int i = src.indexOf('$');
+
+				if (i >= 0) {
+					key = src.substring(0, i);
+				}
+			}
+
+			if (!key.equals(this.key)) {
+				if (this.key != null) {
+					if (Mappings.compareKeys(this.key, key) > 0) {
+						throw new IllegalStateException("class mapping " + src + " is out of order - the mappings must be sorted");
+					}
+
+					endBlock();
+				}
+
+				this.builder = new MappingsBuilder(empty());
+				this.key = key;
+			}
+		}
+
+		@Override
+		public boolean visitField(String src, String dst, String desc) {
+			return builder.visitField(src, dst, desc);
+		}
+
+		@Override
+		public boolean visitMethod(String src, String dst, String desc) {
+			return builder.visitMethod(src, dst, desc);
+		}
+
+		@Override
+		public boolean visitParameter(String src, String dst, int index) {
+			return builder.visitParameter(src, dst, index);
+		}
+
+		@Override
+		public void visitJavadoc(MappingTarget target, String javadoc) {
+			builder.visitJavadoc(target, javadoc);
+		}
+
+		@Override
+		public void visitEnd() {
+			if (builder != null) {
+				endBlock();
+				builder = null;
+			}
+		}
+	}
+}
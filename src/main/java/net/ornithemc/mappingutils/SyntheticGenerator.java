@@ -0,0 +1,346 @@
+package net.ornithemc.mappingutils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import net.ornithemc.mappingutils.io.Format;
+import net.ornithemc.mappingutils.io.MappingTarget;
+import net.ornithemc.mappingutils.io.Mappings;
+import net.ornithemc.mappingutils.io.Mappings.ClassMapping;
+import net.ornithemc.mappingutils.io.Mappings.FieldMapping;
+import net.ornithemc.mappingutils.io.Mappings.Mapping;
+import net.ornithemc.mappingutils.io.Mappings.MethodMapping;
+import net.ornithemc.mappingutils.io.diff.DiffSide;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff.ClassDiff;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff.Diff;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff.FieldDiff;
+
+/**
+ * Generates synthetic mappings and version graphs for benchmarks and
+ * stress tests. The output depends only on the given seed and sizes.
+ * <br>
+ * About a third of the generated classes are nested, and classes have up
+ * to 12 fields and up to 24 methods, with parameters and some javadocs.
+ * With 8000 classes the mappings are roughly the size of those of a
+ * Minecraft release.
+ */
+class SyntheticGenerator {
+
+	static Mappings run(long seed, int classCount) {
+		return new SyntheticGenerator(seed).generate(classCount);
+	}
+
+	/**
+	 * Generate a version graph in the given directory. The root version is
+	 * {@code v0}, every version up to the given depth has the given number
+	 * of children, and every diff makes the given number of changes: class
+	 * and member renames, and field additions and removals.
+	 *
+	 * @return the number of versions in the graph
+	 */
+	static int run(Format format, Path dir, long seed, int classCount, int branches, int depth, int churn) throws IOException {
+		if (format.diffExtension() == null) {
+			throw new IllegalArgumentException("format " + format + " does not support diffs");
+		}
+		if (branches < 1 || depth < 0 || churn < 0) {
+			throw new IllegalArgumentException("invalid graph shape: " + branches + " branches, depth " + depth + ", churn " + churn);
+		}
+
+		SyntheticGenerator generator = new SyntheticGenerator(seed);
+		Mappings mappings = generator.generate(classCount);
+
+		return generator.generate(format, dir, mappings, branches, depth, churn);
+	}
+
+	/**
+	 * Generate the given number of changes to the given mappings, in the
+	 * same way changes between versions in a generated graph are made. The
+	 * mappings themselves are left unchanged.
+	 */
+	static MappingsDiff changes(Mappings mappings, long seed, int churn) {
+		return new SyntheticGenerator(seed).change(mappings, classNames(mappings), churn);
+	}
+
+	private static final String[] PRIMITIVES = { "I", "Z", "J", "F", "D", "B", "[I" };
+
+	private final Random random;
+
+	// counts new names so that they are unique
+	private int names;
+
+	private SyntheticGenerator(long seed) {
+		this.random = new Random(seed);
+	}
+
+	private Mappings generate(int classCount) {
+		Mappings mappings = new Mappings();
+
+		mappings.setSrcNamespace("intermediary");
+		mappings.setDstNamespace("named");
+
+		List<ClassMapping> classes = new ArrayList<>(classCount);
+
+		for (int i = 0; i < classCount; i++) {
+			ClassMapping c;
+
+			if (i > 0 && random.nextInt(3) == 0) {
+				ClassMapping outer = classes.get(random.nextInt(classes.size()));
+				c = outer.addClass(outer.src() + "$C_" + i, "Inner" + i);
+			} else {
+				c = mappings.addClass("net/minecraft/unmapped/C_" + i, "net/minecraft/pkg" + random.nextInt(60) + "/Class" + i);
+			}
+
+			if (random.nextInt(4) == 0) {
+				c.setJavadoc("Javadoc for class " + i + ".");
+			}
+
+			classes.add(c);
+		}
+
+		// members are added once all classes exist,
+		// so that their descriptors can refer to any
+		for (int i = 0; i < classCount; i++) {
+			ClassMapping c = classes.get(i);
+
+			int fields = random.nextInt(12);
+			int methods = random.nextInt(24);
+
+			for (int j = 0; j < fields; j++) {
+				FieldMapping f = c.addField("f_" + i + "_" + j, "field" + j, type(classes));
+
+				if (random.nextInt(8) == 0) {
+					f.setJavadoc("Javadoc for field " + j + ".");
+				}
+			}
+			for (int j = 0; j < methods; j++) {
+				int params = random.nextInt(4);
+
+				List<String> types = new ArrayList<>(params);
+				StringBuilder desc = new StringBuilder("(");
+
+				for (int k = 0; k < params; k++) {
+					String type = type(classes);
+
+					types.add(type);
+					desc.append(type);
+				}
+
+				desc.append(')').append(random.nextBoolean() ? "V" : type(classes));
+
+				MethodMapping m = c.addMethod("m_" + i + "_" + j, "method" + j, desc.toString());
+
+				if (random.nextInt(5) == 0) {
+					m.setJavadoc("Javadoc for method " + j + ".");
+				}
+
+				// parameter indices are local variable indices, which
+				// start at 1 for instance methods, and longs and doubles
+				// take up two of them
+				int index = 1;
+
+				for (int k = 0; k < params; k++) {
+					m.addParameter("", "param" + k, index);
+
+					String type = types.get(k);
+					index += (type.equals("J") || type.equals("D")) ? 2 : 1;
+				}
+			}
+		}
+
+		mappings.sort();
+
+		return mappings;
+	}
+
+	private String type(List<ClassMapping> classes) {
+		if (random.nextInt(3) == 0) {
+			return PRIMITIVES[random.nextInt(PRIMITIVES.length)];
+		}
+
+		return "L" + classes.get(random.nextInt(classes.size())).src() + ";";
+	}
+
+	private int generate(Format format, Path dir, Mappings mappings, int branches, int depth, int churn) throws IOException {
+		Files.createDirectories(dir);
+		format.writeMappings(dir.resolve("v0" + format.mappingsExtension()), mappings);
+
+		List<String> classes = classNames(mappings);
+		int versions = 1;
+
+		// the graph is walked depth first, so that deep graphs do not
+		// overflow the stack, and the mappings of each version are a copy
+		// of those of its parent, which only copies the changed classes
+		Deque<Frame> stack = new ArrayDeque<>();
+		stack.push(new Frame("v0", 0, mappings));
+
+		while (!stack.isEmpty()) {
+			Frame parent = stack.peek();
+
+			if (parent.level < depth && parent.children < branches) {
+				parent.children++;
+
+				String version = "v" + versions++;
+				MappingsDiff diff = change(parent.mappings, classes, churn);
+
+				format.writeDiff(dir.resolve(parent.version + "#" + version + format.diffExtension()), diff);
+
+				Mappings child = null;
+
+				// the mappings of the deepest versions are never needed
+				if (parent.level + 1 < depth) {
+					child = parent.mappings.copy();
+					DiffApplier.run(child, diff);
+				}
+
+				stack.push(new Frame(version, parent.level + 1, child));
+			} else {
+				stack.pop();
+			}
+		}
+
+		return versions;
+	}
+
+	private static List<String> classNames(Mappings mappings) {
+		List<String> classes = new ArrayList<>();
+
+		for (ClassMapping c : mappings.getClasses()) {
+			classes.add(c.src());
+		}
+
+		return classes;
+	}
+
+	/**
+	 * Generate a diff that makes the given number of changes to the
+	 * mappings. The mappings themselves are not changed.
+	 */
+	private MappingsDiff change(Mappings mappings, List<String> classes, int churn) {
+		MappingsDiff diff = new MappingsDiff();
+
+		// the members of the changed classes, including the fields that
+		// were added and excluding those that were removed by the diff
+		Map<ClassMapping, List<Object>> members = new HashMap<>();
+		Set<Object> changed = new HashSet<>();
+
+		for (int i = 0; i < churn; i++) {
+			ClassMapping c = mappings.getClass(classes.get(random.nextInt(classes.size())));
+			List<Object> cm = members.computeIfAbsent(c, SyntheticGenerator::members);
+			int kind = random.nextInt(10);
+
+			if (kind == 0) {
+				// add a field
+				int n = names++;
+				FieldDiff f = ((ClassDiff)diff(diff, c)).addField("f_new_" + n, "", "newField" + n, "I");
+
+				cm.add(f);
+				changed.add(f);
+			} else {
+				Object o = (kind == 1) ? c : randomMember(cm);
+
+				// added fields are never changed again, so
+				// anything else is a mapping from the input
+				if (o == null || !changed.add(o)) {
+					continue;
+				}
+
+				Mapping m = (Mapping)o;
+
+				if (kind == 2 && m.target() == MappingTarget.FIELD) {
+					// remove a field
+					Diff d = diff(diff, m);
+
+					d.set(DiffSide.A, m.get());
+					d.getJavadoc().set(DiffSide.A, m.getJavadoc());
+
+					cm.remove(m);
+				} else {
+					// rename a class or member
+					Diff d = diff(diff, m);
+
+					d.set(DiffSide.A, m.get());
+					d.set(DiffSide.B, rename(m));
+				}
+			}
+		}
+
+		diff.sort();
+
+		return diff;
+	}
+
+	private static List<Object> members(ClassMapping c) {
+		List<Object> members = new ArrayList<>();
+
+		for (Mapping m : c.getChildren()) {
+			if (m.target() != MappingTarget.CLASS) {
+				members.add(m);
+			}
+		}
+
+		return members;
+	}
+
+	private Object randomMember(List<Object> members) {
+		return members.isEmpty() ? null : members.get(random.nextInt(members.size()));
+	}
+
+	/**
+	 * Get or add the diff for the given mapping, along with diffs
+	 * for its parents that do not change anything themselves.
+	 */
+	private static Diff diff(MappingsDiff diff, Mapping m) {
+		Mapping parent = m.getParent();
+
+		if (parent == null) {
+			Diff d = diff.getTopLevelClass(m.src());
+			return (d == null) ? diff.addClass(m.src(), "", "") : d;
+		}
+
+		Diff p = diff(diff, parent);
+		Diff d = p.getChild(m.target(), m.key());
+
+		return (d == null) ? p.addChild(m.target(), m.key(), "", "") : d;
+	}
+
+	private String rename(Mapping m) {
+		int n = names++;
+
+		if (m.target() != MappingTarget.CLASS) {
+			return "renamed" + n;
+		}
+		if (m.getParent() != null) {
+			return "Renamed" + n;
+		}
+
+		// top level classes keep their package
+		String dst = m.get();
+		return dst.substring(0, dst.lastIndexOf('/') + 1) + "Renamed" + n;
+	}
+
+	private static class Frame {
+
+		private final String version;
+		private final int level;
+		private final Mappings mappings;
+
+		private int children;
+
+		Frame(String version, int level, Mappings mappings) {
+			this.version = version;
+			this.level = level;
+			this.mappings = mappings;
+		}
+	}
+}
@@ -0,0 +1,374 @@
+package net.ornithemc.mappingutils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.ornithemc.mappingutils.io.MappingNamespace;
+import net.ornithemc.mappingutils.io.MappingTarget;
+import net.ornithemc.mappingutils.io.Mappings;
+import net.ornithemc.mappingutils.io.MappingsVisitor;
+import net.ornithemc.mappingutils.io.diff.DiffSide;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff.Diff;
+import net.ornithemc.mappingutils.io.diff.graph.Version;
+import net.ornithemc.mappingutils.io.diff.graph.VersionGraph;
+
+/**
+ * A cache of separated mappings for the versions of a version graph.
+ * A version is separated starting from the nearest version on its path
+ * from the root that is still in the cache, so that only the remaining
+ * diffs need to be applied.
+ * <br>
+ * Entries are keyed by a hash of the contents of the root mappings and
+ * of the diffs along the path, so that changes to the graph invalidate
+ * the affected entries. These hashes are computed once, and only again
+ * once the {@link Version#getRevision() revision} of their version has
+ * changed, so changes to the mappings and diffs of a graph must be marked
+ * with {@link Version#markDirty()}. The cache holds at most the given
+ * number of mappings, and evicts the least recently used entries to stay
+ * within that budget.
+ * <br>
+ * A cache may be shared between threads, but it separates mappings for
+ * one caller at a time.
+ */
+public class VersionCache {
+
+	private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+	private static final long FNV_PRIME = 0x100000001B3L;
+
+	private final long budget;
+	private final Map<Key, Entry> entries;
+	// the hashes of the mappings and diffs of each version
+	private final Map<Version, Hashes> hashes;
+
+	private long size;
+
+	public VersionCache(long budget) {
+		if (budget < 0) {
+			throw new IllegalArgumentException("budget cannot be negative: " + budget);
+		}
+
+		this.budget = budget;
+		this.entries = new LinkedHashMap<>(16, 0.75F, true);
+		this.hashes = new IdentityHashMap<>();
+	}
+
+	public long getBudget() {
+		return budget;
+	}
+
+	public synchronized long getSize() {
+		return size;
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		hashes.clear();
+		size = 0;
+	}
+
+	/**
+	 * Separate the mappings for the given version. The returned mappings
+	 * are a copy and can be modified freely.
+	 */
+	public synchronized Mappings get(VersionGraph graph, String version) throws IOException {
+		List<Version> path = new ArrayList<>(graph.getPathFromRoot(version));
+
+		if (path.isEmpty()) {
+			throw new IllegalArgumentException("no version " + version + " is present in this graph!");
+		}
+
+		Key[] keys = new Key[path.size()];
+		// estimates of the number of mappings in each version
+		long[] sizes = new long[path.size()];
+
+		Stamp stamp = stamp(path.get(0));
+
+		long hash = stamp.hash;
+		long mappingsSize = stamp.size;
+
+		for (int i = 0; i < path.size(); i++) {
+			Version v = path.get(i);
+
+			if (i > 0) {
+				stamp = stamp(v, path.get(i - 1));
+
+				hash = hash(hash(hash, (int)stamp.hash), (int)(stamp.hash >>> 32));
+				mappingsSize += stamp.size;
+			}
+
+			keys[i] = new Key(v.toString(), hash);
+			sizes[i] = mappingsSize;
+		}
+
+		// find the nearest version that has already been separated
+		int start = keys.length - 1;
+		Entry entry = null;
+
+		while (start > 0 && (entry = entries.get(keys[start])) == null) {
+			start--;
+		}
+
+		Mappings mappings = (entry == null) ? path.get(0).getMappings().copy() : entry.mappings.copy();
+
+		if (start < keys.length - 1) {
+			List<MappingsDiff> diffs = new ArrayList<>(keys.length - 1 - start);
+
+			for (int i = start + 1; i < path.size(); i++) {
+				diffs.add(path.get(i).getDiff(path.get(i - 1)));
+			}
+
+			DiffApplier.run(mappings, diffs);
+
+			// the cache keeps its own copy, which is only worth making
+			// if other versions can be separated from this one
+			Version target = path.get(path.size() - 1);
+
+			if (!target.getChildren().isEmpty() && put(keys[keys.length - 1], mappings, sizes[sizes.length - 1])) {
+				mappings = mappings.copy();
+			}
+		}
+
+		return mappings;
+	}
+
+	/**
+	 * Get the hash of the mappings of the given root. The mappings are only
+	 * loaded if their hash is not known yet.
+	 */
+	private Stamp stamp(Version root) throws IOException {
+		Hashes h = hashes(root);
+
+		if (h.mappings == null) {
+			Hasher hasher = new Hasher();
+			root.getMappings().accept(hasher);
+
+			h.mappings = new Stamp(hasher.hash, hasher.size);
+		}
+
+		return h.mappings;
+	}
+
+	/**
+	 * Get the hash of the diff between the given versions. The diff is
+	 * only loaded if its hash is not known yet.
+	 */
+	private Stamp stamp(Version version, Version parent) throws IOException {
+		Hashes h = hashes(version);
+		Stamp stamp = h.diffs.get(parent);
+
+		if (stamp == null) {
+			MappingsDiff diff = version.getDiff(parent);
+			long[] size = new long[1];
+
+			stamp = new Stamp(hash(FNV_OFFSET, diff, size), size[0]);
+			h.diffs.put(parent, stamp);
+		}
+
+		return stamp;
+	}
+
+	private Hashes hashes(Version version) {
+		Hashes h = hashes.get(version);
+
+		if (h == null || h.revision != version.getRevision()) {
+			hashes.put(version, h = new Hashes(version.getRevision()));
+		}
+
+		return h;
+	}
+
+	private boolean put(Key key, Mappings mappings, long mappingsSize) {
+		// entries larger than the entire budget are never kept
+		if (mappingsSize > budget) {
+			return false;
+		}
+
+		Entry old = entries.put(key, new Entry(mappings, mappingsSize));
+
+		if (old != null) {
+			size -= old.size;
+		}
+
+		size += mappingsSize;
+
+		for (Iterator<Entry> it = entries.values().iterator(); size > budget && it.hasNext(); ) {
+			size -= it.next().size;
+			it.remove();
+		}
+
+		return true;
+	}
+
+	/**
+	 * Hash the given diff, and count the entries in it, which is as many
+	 * mappings as the diff can add at most.
+	 */
+	private static long hash(long hash, MappingsDiff diff, long[] size) {
+		for (Diff d : diff.getTopLevelClasses()) {
+			hash = hash(hash, d, size);
+		}
+
+		return hash(hash, -1);
+	}
+
+	private static long hash(long hash, Diff d, long[] size) {
+		hash = hash(hash, d.target().ordinal());
+		hash = hash(hash, d.key());
+		hash = hash(hash, d.get(DiffSide.A));
+		hash = hash(hash, d.get(DiffSide.B));
+		hash = hash(hash, d.getJavadoc().get(DiffSide.A));
+		hash = hash(hash, d.getJavadoc().get(DiffSide.B));
+
+		for (Diff c : d.getChildren()) {
+			hash = hash(hash, c, size);
+		}
+
+		size[0]++;
+
+		// mark the end of the children, so that siblings
+		// cannot be mistaken for children and vice versa
+		return hash(hash, -1);
+	}
+
+	private static long hash(long hash, String s) {
+		if (s == null) {
+			return hash(hash, -1);
+		}
+
+		hash = hash(hash, s.length());
+
+		for (int i = 0; i < s.length(); i++) {
+			hash = (hash ^ s.charAt(i)) * FNV_PRIME;
+		}
+
+		return hash;
+	}
+
+	private static long hash(long hash, int value) {
+		return (hash ^ value) * FNV_PRIME;
+	}
+
+	/**
+	 * Visits mappings rather than walking the tree, so that mappings
+	 * shared between copies do not need to be copied.
+	 */
+	private static class Hasher implements MappingsVisitor {
+
+		private long hash = FNV_OFFSET;
+		private long size;
+
+		@Override
+		public void visitHeader(MappingNamespace srcNamespace, MappingNamespace dstNamespace) {
+			hash = hash(hash, srcNamespace.toString());
+			hash = hash(hash, dstNamespace.toString());
+		}
+
+		@Override
+		public boolean visitClass(String src, String dst) {
+			return visit(MappingTarget.CLASS, src, dst);
+		}
+
+		@Override
+		public boolean visitField(String src, String dst, String desc) {
+			hash = hash(hash, desc);
+			return visit(MappingTarget.FIELD, src, dst);
+		}
+
+		@Override
+		public boolean visitMethod(String src, String dst, String desc) {
+			hash = hash(hash, desc);
+			return visit(MappingTarget.METHOD, src, dst);
+		}
+
+		@Override
+		public boolean visitParameter(String src, String dst, int index) {
+			hash = hash(hash, index);
+			return visit(MappingTarget.PARAMETER, src, dst);
+		}
+
+		@Override
+		public void visitJavadoc(MappingTarget target, String javadoc) {
+			hash = hash(hash, -1);
+			hash = hash(hash, javadoc);
+		}
+
+		private boolean visit(MappingTarget target, String src, String dst) {
+			hash = hash(hash, target.ordinal());
+			hash = hash(hash, src);
+			hash = hash(hash, dst);
+			size++;
+
+			return true;
+		}
+	}
+
+	private static class Key {
+
+		private final String version;
+		private final long hash;
+
+		Key(String version, long hash) {
+			this.version = version;
+			this.hash = hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+
+			Key key = (Key)obj;
+			return version.equals(key.version) && hash == key.hash;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * version.hashCode() + Long.hashCode(hash);
+		}
+	}
+
+	private static class Hashes {
+
+		private final int revision;
+
+		private Stamp mappings;
+		private final Map<Version, Stamp> diffs;
+
+		Hashes(int revision) {
+			this.revision = revision;
+			this.diffs = new IdentityHashMap<>();
+		}
+	}
+
+	private static class Stamp {
+
+		private final long hash;
+		private final long size;
+
+		Stamp(long hash, long size) {
+			this.hash = hash;
+			this.size = size;
+		}
+	}
+
+	private static class Entry {
+
+		private final Mappings mappings;
+		private final long size;
+
+		Entry(Mappings mappings, long size) {
+			this.mappings = mappings;
+			this.size = size;
+		}
+	}
+}
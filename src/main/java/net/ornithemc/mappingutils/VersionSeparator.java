@@ -0,0 +1,211 @@
+package net.ornithemc.mappingutils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import net.ornithemc.mappingutils.io.Format;
+import net.ornithemc.mappingutils.io.Mappings;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff;
+import net.ornithemc.mappingutils.io.diff.graph.Version;
+import net.ornithemc.mappingutils.io.diff.graph.VersionGraph;
+
+/**
+ * Separates the mappings of every version in a version graph in a single
+ * pass. Each version is derived from the same parent that
+ * {@link MappingUtils#separateMappings(VersionGraph, String)} would use,
+ * and the mappings are carried down each branch of the graph, so that
+ * every diff is applied only once. Mappings are only copied where the
+ * graph branches, and separate branches can be processed in parallel.
+ */
+class VersionSeparator {
+
+	static void run(VersionGraph graph, Path dir, int threads) throws IOException {
+		new VersionSeparator(graph, dir).run(threads);
+	}
+
+	private final VersionGraph graph;
+	private final Format format;
+	private final Path dir;
+
+	// for each version, the versions that are derived from it
+	private final Map<Version, List<Version>> children;
+	// for each version, the diff from the version it is derived from
+	private final Map<Version, MappingsDiff> diffs;
+
+	private VersionSeparator(VersionGraph graph, Path dir) {
+		this.graph = graph;
+		this.format = graph.getFormat();
+		this.dir = dir;
+
+		this.children = new LinkedHashMap<>();
+		this.diffs = new LinkedHashMap<>();
+	}
+
+	private void run(int threads) throws IOException {
+		Files.createDirectories(dir);
+
+		Version root = graph.root();
+		List<Version> versions = new ArrayList<>();
+
+		graph.walk(versions::add, p -> { });
+
+		for (Version v : versions) {
+			children.put(v, new ArrayList<>());
+		}
+
+		// versions and diffs are loaded lazily and are not thread-safe,
+		// so resolve everything up front
+		for (Version v : versions) {
+			if (v.isRoot()) {
+				continue;
+			}
+
+			Version parent = findParent(v);
+
+			children.get(parent).add(v);
+			diffs.put(v, v.getDiff(parent));
+		}
+
+		Branch start = new Branch(root, root.getMappings().copy());
+
+		if (threads <= 1) {
+			run(start);
+		} else {
+			run(start, threads);
+		}
+	}
+
+	private void run(Branch start) throws IOException {
+		Deque<Branch> branches = new LinkedList<>();
+		branches.push(start);
+
+		while (!branches.isEmpty()) {
+			for (Branch b : separate(branches.pop())) {
+				branches.push(b);
+			}
+		}
+	}
+
+	private void run(Branch start, int threads) throws IOException {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		try {
+			CompletionService<List<Branch>> branches = new ExecutorCompletionService<>(executor);
+
+			branches.submit(() -> separate(start));
+			int pending = 1;
+
+			while (pending > 0) {
+				List<Branch> next;
+
+				try {
+					next = branches.take().get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+
+					if (cause instanceof IOException) {
+						throw (IOException)cause;
+					}
+					if (cause instanceof RuntimeException) {
+						throw (RuntimeException)cause;
+					}
+
+					throw new IOException("error separating mappings", cause);
+				}
+
+				pending--;
+
+				for (Branch b : next) {
+					branches.submit(() -> separate(b));
+					pending++;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted while separating mappings", e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Separate the versions of the given branch, up to the point where
+	 * the graph branches again or ends. The returned branches start
+	 * at the children of the last separated version.
+	 */
+	private List<Branch> separate(Branch branch) throws IOException {
+		Version v = branch.version;
+		Mappings mappings = branch.mappings;
+
+		while (true) {
+			MappingsDiff diff = diffs.get(v);
+
+			if (diff != null) {
+				DiffApplier.run(mappings, diff);
+			}
+
+			format.writeMappings(dir.resolve(v.toString() + format.mappingsExtension()), mappings);
+
+			List<Version> next = children.get(v);
+
+			if (next.isEmpty()) {
+				return Collections.emptyList();
+			}
+			if (next.size() > 1) {
+				List<Branch> branches = new ArrayList<>(next.size());
+
+				for (Iterator<Version> it = next.iterator(); it.hasNext(); ) {
+					Version c = it.next();
+					// the last branch can take over these mappings
+					branches.add(new Branch(c, it.hasNext() ? mappings.copy() : mappings));
+				}
+
+				return branches;
+			}
+
+			v = next.get(0);
+		}
+	}
+
+	private Version findParent(Version v) {
+		// use the same path separateMappings would use
+		Collection<Version> path = graph.getPathFromRoot(v.toString());
+		Version parent = null;
+
+		for (Version p : path) {
+			if (p == v) {
+				break;
+			}
+
+			parent = p;
+		}
+
+		return parent;
+	}
+
+	private static class Branch {
+
+		private final Version version;
+		private final Mappings mappings;
+
+		Branch(Version version, Mappings mappings) {
+			this.version = version;
+			this.mappings = mappings;
+		}
+	}
+}
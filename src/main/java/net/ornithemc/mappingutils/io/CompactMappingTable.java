@@ -0,0 +1,422 @@
+package net.ornithemc.mappingutils.io;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import net.ornithemc.mappingutils.io.Mappings.Mapping;
+
+/**
+ * An insertion ordered map of mappings by key, backed by plain arrays.
+ * Keys are not stored; only their hashes are, and candidates are checked
+ * against the key of the mapping itself. Small tables are scanned linearly,
+ * larger ones get an open addressing index on top.
+ * <br>
+ * Removed mappings leave a hole in the arrays rather than shifting the ones
+ * after them, and the holes are compacted once they make up half of the
+ * used entries, so that removing many mappings stays linear in total.
+ */
+class CompactMappingTable<M extends Mapping> extends AbstractMap<String, M> {
+
+	private static final Mapping[] EMPTY_VALUES = {};
+	private static final int[] EMPTY_HASHES = {};
+
+	// tables up to this size are scanned rather than indexed
+	private static final int LINEAR_SCAN_THRESHOLD = 8;
+
+	private Mapping[] values;
+	private int[] hashes;
+	private int[] index;
+	// entries up to the end are in use, those that are null are holes
+	private int end;
+	private int size;
+	private int modCount;
+
+	private Set<Entry<String, M>> entrySet;
+	private Collection<M> valuesView;
+
+	CompactMappingTable() {
+		this.values = EMPTY_VALUES;
+		this.hashes = EMPTY_HASHES;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return key instanceof String && indexOf((String)key) >= 0;
+	}
+
+	@Override
+	public M get(Object key) {
+		if (!(key instanceof String)) {
+			return null;
+		}
+
+		int i = indexOf((String)key);
+		return i < 0 ? null : value(i);
+	}
+
+	/**
+	 * Look up the field or method with the given name and descriptor,
+	 * without building its key.
+	 */
+	M get(String name, String desc) {
+		int i = indexOf(MemberKey.hash(name, desc), name, desc);
+		return i < 0 ? null : value(i);
+	}
+
+	M get(MemberKey key) {
+		int i = indexOf(key.hashCode(), key.getName(), key.getDesc());
+		return i < 0 ? null : value(i);
+	}
+
+	@Override
+	public M put(String key, M value) {
+		int i = indexOf(key);
+
+		if (i >= 0) {
+			M old = value(i);
+			values[i] = value;
+
+			return old;
+		}
+
+		if (end == values.length) {
+			if (4 * (end - size) >= end && end > 0) {
+				compact();
+			} else {
+				grow();
+			}
+		}
+
+		values[end] = value;
+		hashes[end] = key.hashCode();
+		end++;
+		size++;
+		modCount++;
+
+		if (index != null && 2 * size > index.length) {
+			rebuildIndex();
+		} else if (index != null) {
+			insertIntoIndex(end - 1);
+		} else if (size > LINEAR_SCAN_THRESHOLD) {
+			rebuildIndex();
+		}
+
+		return null;
+	}
+
+	@Override
+	public M remove(Object key) {
+		if (!(key instanceof String)) {
+			return null;
+		}
+
+		int i = indexOf((String)key);
+
+		if (i < 0) {
+			return null;
+		}
+
+		M m = removeAt(i);
+
+		if (2 * (end - size) > end) {
+			compact();
+		}
+
+		return m;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(values, 0, end, null);
+
+		end = 0;
+		size = 0;
+		index = null;
+		modCount++;
+	}
+
+	@Override
+	public Set<Entry<String, M>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new AbstractSet<>() {
+
+				@Override
+				public Iterator<Entry<String, M>> iterator() {
+					return new TableIterator<Entry<String, M>>() {
+
+						@Override
+						Entry<String, M> get(int i) {
+							M m = value(i);
+							return new SimpleImmutableEntry<>(m.key(), m);
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return size;
+				}
+
+				@Override
+				public void clear() {
+					CompactMappingTable.this.clear();
+				}
+			};
+		}
+
+		return entrySet;
+	}
+
+	@Override
+	public Collection<M> values() {
+		if (valuesView == null) {
+			valuesView = new AbstractCollection<>() {
+
+				@Override
+				public Iterator<M> iterator() {
+					return new TableIterator<M>() {
+
+						@Override
+						M get(int i) {
+							return value(i);
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return size;
+				}
+
+				@Override
+				public void clear() {
+					CompactMappingTable.this.clear();
+				}
+			};
+		}
+
+		return valuesView;
+	}
+
+	/**
+	 * Shrink the backing arrays to the number of mappings in this table.
+	 */
+	void trimToSize() {
+		if (end != size) {
+			compact();
+		}
+		if (values.length != size) {
+			values = (size == 0) ? EMPTY_VALUES : Arrays.copyOf(values, size);
+			hashes = (size == 0) ? EMPTY_HASHES : Arrays.copyOf(hashes, size);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private M value(int i) {
+		return (M)values[i];
+	}
+
+	private int indexOf(String key) {
+		int hash = key.hashCode();
+
+		if (index == null) {
+			for (int i = 0; i < end; i++) {
+				if (hashes[i] == hash && values[i] != null && values[i].hasKey(key)) {
+					return i;
+				}
+			}
+		} else {
+			int mask = index.length - 1;
+
+			for (int slot = spread(hash) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+				int i = index[slot] - 1;
+
+				if (hashes[i] == hash && values[i].hasKey(key)) {
+					return i;
+				}
+			}
+		}
+
+		return -1;
+	}
+
+	private int indexOf(int hash, String name, String desc) {
+		if (index == null) {
+			for (int i = 0; i < end; i++) {
+				if (hashes[i] == hash && values[i] != null && values[i].hasKey(name, desc)) {
+					return i;
+				}
+			}
+		} else {
+			int mask = index.length - 1;
+
+			for (int slot = spread(hash) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+				int i = index[slot] - 1;
+
+				if (hashes[i] == hash && values[i].hasKey(name, desc)) {
+					return i;
+				}
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Remove the mapping at the given position, leaving a hole. This does
+	 * not move any other mappings, so iterators stay valid.
+	 */
+	private M removeAt(int i) {
+		M m = value(i);
+
+		if (index != null) {
+			removeFromIndex(i);
+		}
+
+		values[i] = null;
+		size--;
+		modCount++;
+
+		return m;
+	}
+
+	/**
+	 * Move all mappings to the front of the arrays, removing the holes,
+	 * and rebuild the index.
+	 */
+	private void compact() {
+		int j = 0;
+
+		for (int i = 0; i < end; i++) {
+			if (values[i] != null) {
+				values[j] = values[i];
+				hashes[j] = hashes[i];
+				j++;
+			}
+		}
+
+		Arrays.fill(values, j, end, null);
+
+		end = j;
+		modCount++;
+
+		rebuildIndex();
+	}
+
+	private void grow() {
+		// grow in small steps, most tables only ever hold a handful of mappings
+		int capacity = values.length + Math.max(2, values.length >> 1);
+
+		values = Arrays.copyOf(values, capacity);
+		hashes = Arrays.copyOf(hashes, capacity);
+	}
+
+	private void rebuildIndex() {
+		if (size <= LINEAR_SCAN_THRESHOLD) {
+			index = null;
+		} else {
+			index = new int[Integer.highestOneBit(size) << 2];
+
+			for (int i = 0; i < end; i++) {
+				if (values[i] != null) {
+					insertIntoIndex(i);
+				}
+			}
+		}
+	}
+
+	private void insertIntoIndex(int i) {
+		int mask = index.length - 1;
+		int slot = spread(hashes[i]) & mask;
+
+		while (index[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+
+		index[slot] = i + 1;
+	}
+
+	private void removeFromIndex(int i) {
+		int mask = index.length - 1;
+		int hole = spread(hashes[i]) & mask;
+
+		while (index[hole] != i + 1) {
+			hole = (hole + 1) & mask;
+		}
+
+		// shift back the entries after the hole that would
+		// otherwise no longer be found from their home slot
+		for (int slot = (hole + 1) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+			int home = spread(hashes[index[slot] - 1]) & mask;
+
+			if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+				index[hole] = index[slot];
+				hole = slot;
+			}
+		}
+
+		index[hole] = 0;
+	}
+
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	private abstract class TableIterator<T> implements Iterator<T> {
+
+		private int next;
+		private int last = -1;
+		private int expectedModCount = modCount;
+
+		@Override
+		public boolean hasNext() {
+			while (next < end && values[next] == null) {
+				next++;
+			}
+
+			return next < end;
+		}
+
+		@Override
+		public T next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			return get(last = next++);
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+
+			removeAt(last);
+
+			last = -1;
+			expectedModCount = modCount;
+		}
+
+		abstract T get(int i);
+
+	}
+}
@@ -5,7 +5,11 @@ import java.io.BufferedWriter;
 import java.io.IOException;
 import java.nio.file.Path;
 
+import net.ornithemc.mappingutils.io.binary.BinaryMappingsReader;
+import net.ornithemc.mappingutils.io.binary.BinaryMappingsWriter;
 import net.ornithemc.mappingutils.io.diff.MappingsDiff;
+import net.ornithemc.mappingutils.io.diff.binary.BinaryDiffReader;
+import net.ornithemc.mappingutils.io.diff.binary.BinaryDiffWriter;
 import net.ornithemc.mappingutils.io.diff.tiny.v1.TinyV1DiffReader;
 import net.ornithemc.mappingutils.io.diff.tiny.v1.TinyV1DiffWriter;
 import net.ornithemc.mappingutils.io.diff.tiny.v2.TinyV2DiffReader;
@@ -43,6 +47,26 @@ public enum Format {
 			return TinyV1Reader.read(br, cacheById);
 		}
 
+		@Override
+		public Mappings readMappings(Path path, Mappings mappings) throws IOException {
+			return TinyV1Reader.read(path, mappings);
+		}
+
+		@Override
+		public Mappings readMappings(BufferedReader br, Mappings mappings) throws IOException {
+			return TinyV1Reader.read(br, mappings);
+		}
+
+		@Override
+		public void visitMappings(Path path, MappingsVisitor visitor) throws IOException {
+			TinyV1Reader.accept(path, visitor);
+		}
+
+		@Override
+		public void visitMappings(BufferedReader br, MappingsVisitor visitor) throws IOException {
+			TinyV1Reader.accept(br, visitor);
+		}
+
 		@Override
 		public void writeMappings(Path path, Mappings mappings) throws IOException {
 			TinyV1Writer.write(path, mappings);
@@ -105,6 +129,26 @@ public enum Format {
 			return TinyV2Reader.read(br, cacheById);
 		}
 
+		@Override
+		public Mappings readMappings(Path path, Mappings mappings) throws IOException {
+			return TinyV2Reader.read(path, mappings);
+		}
+
+		@Override
+		public Mappings readMappings(BufferedReader br, Mappings mappings) throws IOException {
+			return TinyV2Reader.read(br, mappings);
+		}
+
+		@Override
+		public void visitMappings(Path path, MappingsVisitor visitor) throws IOException {
+			TinyV2Reader.accept(path, visitor);
+		}
+
+		@Override
+		public void visitMappings(BufferedReader br, MappingsVisitor visitor) throws IOException {
+			TinyV2Reader.accept(br, visitor);
+		}
+
 		@Override
 		public void writeMappings(Path path, Mappings mappings) throws IOException {
 			TinyV2Writer.write(path, mappings);
@@ -167,6 +211,16 @@ public enum Format {
 			return EnigmaFileReader.read(br, cacheById);
 		}
 
+		@Override
+		public Mappings readMappings(Path path, Mappings mappings) throws IOException {
+			return EnigmaFileReader.read(path, mappings);
+		}
+
+		@Override
+		public Mappings readMappings(BufferedReader br, Mappings mappings) throws IOException {
+			return EnigmaFileReader.read(br, mappings);
+		}
+
 		@Override
 		public void writeMappings(Path path, Mappings mappings) throws IOException {
 			EnigmaFileWriter.write(path, mappings);
@@ -189,10 +243,57 @@ public enum Format {
 			return EnigmaDirReader.read(path, cacheById);
 		}
 
+		@Override
+		public Mappings readMappings(Path path, Mappings mappings) throws IOException {
+			return EnigmaDirReader.read(path, mappings);
+		}
+
 		@Override
 		public void writeMappings(Path path, Mappings mappings) throws IOException {
 			EnigmaDirWriter.write(path, mappings);
 		}
+	},
+	BINARY(".bin", ".bindiff") {
+
+		@Override
+		public Mappings readMappings(Path path) throws IOException {
+			return BinaryMappingsReader.read(path, false);
+		}
+
+		@Override
+		public Mappings readMappings(Path path, boolean cacheById) throws IOException {
+			return BinaryMappingsReader.read(path, cacheById);
+		}
+
+		@Override
+		public Mappings readMappings(Path path, Mappings mappings) throws IOException {
+			return BinaryMappingsReader.read(path, mappings);
+		}
+
+		@Override
+		public void visitMappings(Path path, MappingsVisitor visitor) throws IOException {
+			BinaryMappingsReader.accept(path, visitor);
+		}
+
+		@Override
+		public void writeMappings(Path path, Mappings mappings) throws IOException {
+			BinaryMappingsWriter.write(path, mappings);
+		}
+
+		@Override
+		public MappingsDiff readDiff(Path path) throws IOException {
+			return BinaryDiffReader.read(path, false);
+		}
+
+		@Override
+		public MappingsDiff readDiff(Path path, boolean cacheById) throws IOException {
+			return BinaryDiffReader.read(path, cacheById);
+		}
+
+		@Override
+		public void writeDiff(Path path, MappingsDiff diff) throws IOException {
+			BinaryDiffWriter.write(path, diff);
+		}
 	};
 
 	private final String mappingsExtension;
@@ -227,6 +328,30 @@ public enum Format {
 		throw new UnsupportedOperationException();
 	}
 
+	/**
+	 * Read mappings into the given instance, allowing the caller to choose
+	 * its storage (see {@link Mappings#isCompact()}).
+	 */
+	public Mappings readMappings(Path path, Mappings mappings) throws IOException {
+		throw new UnsupportedOperationException();
+	}
+
+	public Mappings readMappings(BufferedReader br, Mappings mappings) throws IOException {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Stream the mappings to the given visitor without building a
+	 * {@link Mappings} tree.
+	 */
+	public void visitMappings(Path path, MappingsVisitor visitor) throws IOException {
+		throw new UnsupportedOperationException();
+	}
+
+	public void visitMappings(BufferedReader br, MappingsVisitor visitor) throws IOException {
+		throw new UnsupportedOperationException();
+	}
+
 	public void writeMappings(Path path, Mappings mappings) throws IOException {
 		throw new UnsupportedOperationException();
 	}
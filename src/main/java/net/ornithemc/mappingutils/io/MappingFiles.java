@@ -0,0 +1,40 @@
+package net.ornithemc.mappingutils.io;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Opens mapping files. Text formats are always read and written as UTF-8,
+ * rather than in the platform charset, so that files survive being moved
+ * between machines.
+ * <br>
+ * Files are read through streams rather than memory mapped. A mapping
+ * is limited to 2 GiB, its buffer is only unmapped once it is collected,
+ * which keeps the file locked on Windows until then, and reading mapped
+ * files was not faster than streaming them.
+ */
+public class MappingFiles {
+
+	public static BufferedReader reader(Path path) throws IOException {
+		// unlike Files.newBufferedReader, this replaces malformed input
+		// rather than failing on it, as FileReader used to
+		return new BufferedReader(new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8));
+	}
+
+	public static BufferedWriter writer(Path path) throws IOException {
+		return Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Read the contents of the given file, for the binary formats.
+	 */
+	public static ByteBuffer readBytes(Path path) throws IOException {
+		return ByteBuffer.wrap(Files.readAllBytes(path));
+	}
+}
@@ -21,12 +21,15 @@ public class Mappings {
 
 	private final Map<String, ClassMapping> classMappings;
 	private final Map<String, Collection<ClassMapping>> classMappingsById;
+	private final StringPool strings;
 
 	private MappingNamespace srcNamespace;
 	private MappingNamespace dstNamespace;
 	private MappingValidator validator;
 
 	private Mappings inverted;
+	// whether any class mappings are shared with copies of these mappings
+	private boolean shared;
 
 	public Mappings() {
 		this(false);
@@ -36,9 +39,29 @@ public class Mappings {
 		this(cacheByIds, MappingNamespace.NONE, MappingNamespace.NONE);
 	}
 
+	public Mappings(boolean cacheByIds, boolean compact) {
+		this(cacheByIds, MappingNamespace.NONE, MappingNamespace.NONE, compact);
+	}
+
 	public Mappings(boolean cacheByIds, MappingNamespace srcNamespace, MappingNamespace dstNamespace) {
-		this.classMappings = new LinkedHashMap<>();
+		this(cacheByIds, srcNamespace, dstNamespace, false);
+	}
+
+	public Mappings(boolean cacheByIds, MappingNamespace srcNamespace, MappingNamespace dstNamespace, boolean compact) {
+		this(cacheByIds, srcNamespace, dstNamespace, compact ? new StringPool() : null);
+	}
+
+	/**
+	 * Create mappings with compact storage, where all names, descriptors
+	 * and javadocs are taken from the given string pool, and child mappings
+	 * are stored in array-backed tables rather than hash maps. This trades
+	 * some lookup speed for a much smaller memory footprint. Passing a
+	 * {@code null} pool selects the default storage.
+	 */
+	public Mappings(boolean cacheByIds, MappingNamespace srcNamespace, MappingNamespace dstNamespace, StringPool strings) {
+		this.classMappings = (strings == null) ? new LinkedHashMap<>() : new CompactMappingTable<>();
 		this.classMappingsById = cacheByIds ? new LinkedHashMap<>() : null;
+		this.strings = strings;
 
 		this.srcNamespace = srcNamespace;
 		this.dstNamespace = dstNamespace;
@@ -74,6 +97,18 @@ public class Mappings {
 		this.validator = validator;
 	}
 
+	public boolean isCachedById() {
+		return classMappingsById != null;
+	}
+
+	public boolean isCompact() {
+		return strings != null;
+	}
+
+	public StringPool getStringPool() {
+		return strings;
+	}
+
 	private ClassMapping findParent(String name, boolean orThrowException) {
 		if (!MappingUtils.parseInnerClasses) {
 			return null;
@@ -95,6 +130,11 @@ public class Mappings {
 		return parent;
 	}
 
+	/**
+	 * Returns the class mapping with the given name. It may be shared with
+	 * copies of these mappings and must not be modified; use
+	 * {@link #getMutableClass} for a class mapping that is modified.
+	 */
 	public ClassMapping getClass(String name) {
 		ClassMapping parent = findParent(name, false);
 		return parent == null ? getTopLevelClass(name) : parent.getClass(name);
@@ -104,6 +144,34 @@ public class Mappings {
 		return classMappings.get(ClassMapping.key(name));
 	}
 
+	/**
+	 * Returns the class mapping with the given name, such that it can be
+	 * modified. If it is shared with copies of these mappings, its top
+	 * level class is copied first.
+	 */
+	public ClassMapping getMutableClass(String name) {
+		return mutable(getClass(name));
+	}
+
+	private ClassMapping mutable(ClassMapping c) {
+		if (c == null || !shared) {
+			return c;
+		}
+
+		ClassMapping top = c;
+
+		while (top.parent != null) {
+			top = top.getParent();
+		}
+
+		// if the top level class was copied, so were its inner classes
+		return (own(top) == top) ? c : getClass(c.src());
+	}
+
+	/**
+	 * Returns a read-only view of all class mappings, including inner
+	 * classes. Like {@link #getClass}, these must not be modified.
+	 */
 	public Collection<ClassMapping> getClasses() {
 		Collection<ClassMapping> classes = new LinkedHashSet<>();
 
@@ -111,7 +179,7 @@ public class Mappings {
 			collectClasses(classes, c);
 		}
 
-		return classes;
+		return Collections.unmodifiableCollection(classes);
 	}
 
 	private void collectClasses(Collection<ClassMapping> classes, ClassMapping c) {
@@ -122,8 +190,12 @@ public class Mappings {
 		}
 	}
 
+	/**
+	 * Returns a read-only view of the top level class mappings. Like
+	 * {@link #getClass}, these must not be modified.
+	 */
 	public Collection<ClassMapping> getTopLevelClasses() {
-		return classMappings.values();
+		return Collections.unmodifiableCollection(classMappings.values());
 	}
 
 	public Collection<ClassMapping> getClasses(String id) {
@@ -131,20 +203,29 @@ public class Mappings {
 			throw new UnsupportedOperationException("these mappings are not cached by id!");
 		}
 
-		return classMappingsById.getOrDefault(id, Collections.emptySet());
+		return Collections.unmodifiableCollection(classMappingsById.getOrDefault(id, Collections.emptySet()));
 	}
 
 	public ClassMapping addClass(String src, String dst) {
 		return addClass(new ClassMapping(src, dst));
 	}
 
-	private ClassMapping addClass(ClassMapping c) {
-		ClassMapping parent = findParent(c.src(), true);
+	/**
+	 * Add the given class mapping, along with its children, to these
+	 * mappings. The class mapping may be moved from another tree, but
+	 * it will not be removed from that tree.
+	 */
+	public ClassMapping addClass(ClassMapping c) {
+		ClassMapping parent = mutable(findParent(c.src(), true));
 
 		if (parent == null) {
 			c.setRoot(this);
 
 			classMappings.compute(c.key(), (key, value) -> {
+				if (value != null && value != c) {
+					release(value);
+				}
+
 				return (ClassMapping)checkReplace(value, c);
 			});
 		} else {
@@ -165,35 +246,89 @@ public class Mappings {
 	}
 
 	public ClassMapping removeClass(ClassMapping c) {
-		if (c.root == this) {
-			if (c.parent == null) {
-				classMappings.remove(c.key());
-			} else {
-				c.parent.removeClass(c);
+		if (c.parent == null) {
+			if (classMappings.get(c.key()) != c) {
+				return null;
 			}
 
-			if (classMappingsById != null) {
-				String id = Mapping.getId(c);
-				getClasses(id).remove(c);
-			}
+			// the copies of these mappings keep a shared class mapping
+			release(c);
+			classMappings.remove(c.key());
+		} else if (getClass(c.src()) == c) {
+			// an inner class is removed from its outer class,
+			// which is modified and may need to be copied
+			c = mutable(c);
+			c.parent.removeClass(c);
+		} else {
+			return null;
+		}
 
-			return c;
+		if (classMappingsById != null) {
+			Collection<ClassMapping> classes = classMappingsById.get(Mapping.getId(c));
+
+			if (classes != null) {
+				classes.remove(c);
+			}
 		}
 
-		return null;
+		return c;
 	}
 
 	public void sort() {
+		ownAll();
 		sort(classMappings);
 	}
 
+	/**
+	 * Compare the keys of two mappings in the order in which {@link #sort()}
+	 * puts them: by the length of the name, then by name and descriptor.
+	 */
+	public static int compareKeys(String k1, String k2) {
+		// attempt to sort by name only
+		// if name matches, sort by name + desc
+		int l1 = k1.indexOf(':');
+		int l2 = k2.indexOf(':');
+
+		if (l1 < 0) l1 = k1.length();
+		if (l2 < 0) l2 = k2.length();
+
+		return l1 == l2 ? k1.compareTo(k2) : l1 - l2;
+	}
+
+	/**
+	 * Release any excess capacity of compact storage. This is a no-op
+	 * for mappings with default storage.
+	 */
+	public void trimToSize() {
+		if (strings != null) {
+			ownAll();
+			trimToSize(classMappings);
+		}
+	}
+
 	public void validate() {
 		Iterator<ClassMapping> it = classMappings.values().iterator();
 
 		while (it.hasNext()) {
 			ClassMapping c = it.next();
 
-			if (!c.validate()) {
+			// a shared class mapping is only copied if validating it
+			// changes it, which for most validators it never does
+			if (shared && isShared(c)) {
+				if (c.validatedBy == validator) {
+					continue;
+				}
+				if (c.validate(validator, false)) {
+					c.validatedBy = validator;
+					continue;
+				}
+			}
+
+			c = own(c);
+
+			if (c.validate(validator, true)) {
+				c.validatedBy = validator;
+			} else {
 				it.remove();
 			}
 		}
@@ -201,9 +336,12 @@ public class Mappings {
 
 	public Mappings invert() {
 		if (inverted == null) {
-			inverted = new Mappings(classMappingsById != null);
+			inverted = new Mappings(classMappingsById != null, MappingNamespace.NONE, MappingNamespace.NONE, strings);
 			inverted.inverted = this;
 
+			// inverse mappings are stored on the class mappings
+			ownAll();
+
 			for (ClassMapping c : classMappings.values()) {
 				inverted.addClass(c.invert());
 			}
@@ -212,19 +350,188 @@ public class Mappings {
 		return inverted;
 	}
 
+	/**
+	 * Create a copy of these mappings. The copy shares its class mappings
+	 * with these mappings, and a class mapping, along with its fields,
+	 * methods and inner classes, is only copied once it is accessed
+	 * through {@link #getMutableClass}, or changed by another method of
+	 * either of them. Deriving one set of mappings from another
+	 * is then proportional to the number of classes that are changed,
+	 * rather than to the size of the mappings.
+	 * <br>
+	 * Class mappings that were obtained from these mappings before the
+	 * copy was made must not be modified after.
+	 */
 	public Mappings copy() {
-		Mappings copy = new Mappings(classMappingsById != null, srcNamespace, dstNamespace);
+		Mappings copy = new Mappings(classMappingsById != null, srcNamespace, dstNamespace, strings);
 
 		for (ClassMapping c : classMappings.values()) {
-			c.copy(copy.addClass(c.src(), c.dst));
+			synchronized (c) {
+				c.shares++;
+			}
+
+			copy.classMappings.put(c.key(), c);
+
+			if (copy.classMappingsById != null) {
+				String id = Mapping.getId(c);
+				copy.classMappingsById.computeIfAbsent(id, key -> new LinkedHashSet<>()).add(c);
+			}
 		}
 
+		shared = copy.shared = !classMappings.isEmpty();
+
 		return copy;
 	}
 
+	/**
+	 * Visit the contents of these mappings.
+	 */
+	public void accept(MappingsVisitor visitor) {
+		visitor.visitHeader(srcNamespace, dstNamespace);
+
+		for (ClassMapping c : classMappings.values()) {
+			accept(visitor, c);
+		}
+
+		visitor.visitEnd();
+	}
+
+	private void accept(MappingsVisitor visitor, ClassMapping c) {
+		if (visitor.visitClass(c.src, c.dst.isEmpty() ? "" : c.getComplete())) {
+			accept(visitor, MappingTarget.CLASS, c.jav);
+
+			for (Mapping f : c.children.values()) {
+				if (f.target() == MappingTarget.FIELD && visitor.visitField(f.src, f.dst, ((FieldMapping)f).getDesc())) {
+					accept(visitor, MappingTarget.FIELD, f.jav);
+				}
+			}
+			for (Mapping m : c.children.values()) {
+				if (m.target() == MappingTarget.METHOD && visitor.visitMethod(m.src, m.dst, ((MethodMapping)m).getDesc())) {
+					accept(visitor, MappingTarget.METHOD, m.jav);
+
+					for (Mapping p : m.children.values()) {
+						if (visitor.visitParameter(p.src, p.dst, ((ParameterMapping)p).getIndex())) {
+							accept(visitor, MappingTarget.PARAMETER, p.jav);
+						}
+					}
+				}
+			}
+		}
+
+		// like in tiny files, inner classes are visited separately
+		// even if the contents of their outer class were skipped
+		for (Mapping cc : c.children.values()) {
+			if (cc.target() == MappingTarget.CLASS) {
+				accept(visitor, (ClassMapping)cc);
+			}
+		}
+	}
+
+	private void accept(MappingsVisitor visitor, MappingTarget target, String jav) {
+		if (!jav.isEmpty()) {
+			visitor.visitJavadoc(target, jav);
+		}
+	}
+
+	/**
+	 * Make sure the given top level class mapping is not shared with any
+	 * copies of these mappings, so that it can be modified safely.
+	 */
+	private ClassMapping own(ClassMapping c) {
+		if (c == null || !shared) {
+			return c;
+		}
+
+		synchronized (c) {
+			if (c.shares > 0) {
+				c.shares--;
+
+				ClassMapping copy = new ClassMapping(c.src, c.dst);
+				copy.setRoot(this);
+				c.copy(copy);
+				copy.validatedBy = c.validatedBy;
+
+				classMappings.put(c.key(), copy);
+
+				if (classMappingsById != null) {
+					replaceById(c, copy);
+				}
+
+				return copy;
+			}
+
+			// all other mappings have made their own copy,
+			// so this one can take over the original
+			if (c.root != this) {
+				c.adopt(this);
+			}
+		}
+
+		return c;
+	}
+
+	/**
+	 * Check whether the given top level class mapping is shared with any
+	 * copies of these mappings, or still belongs to the mappings it was
+	 * copied from.
+	 */
+	private boolean isShared(ClassMapping c) {
+		synchronized (c) {
+			return c.shares > 0 || c.root != this;
+		}
+	}
+
+	/**
+	 * Drop the given top level class mapping from these mappings without
+	 * copying it, so that it is no longer counted as shared with them.
+	 */
+	private void release(ClassMapping c) {
+		if (shared) {
+			synchronized (c) {
+				if (c.shares > 0) {
+					c.shares--;
+				}
+			}
+		}
+	}
+
+	private void ownAll() {
+		if (shared) {
+			for (ClassMapping c : new LinkedList<>(classMappings.values())) {
+				own(c);
+			}
+
+			shared = false;
+		}
+	}
+
+	private void replaceById(ClassMapping o, ClassMapping n) {
+		Collection<ClassMapping> classes = classMappingsById.get(Mapping.getId(o));
+
+		if (classes != null && classes.contains(o)) {
+			// rebuild the set to keep the iteration order intact
+			Collection<ClassMapping> replaced = new LinkedHashSet<>();
+
+			for (ClassMapping c : classes) {
+				replaced.add(c == o ? n : c);
+			}
+
+			classMappingsById.put(Mapping.getId(o), replaced);
+		}
+
+		// the children of a copy are in the same order as those of the original
+		Iterator<ClassMapping> it = n.getClasses().iterator();
+
+		for (ClassMapping c : o.getClasses()) {
+			replaceById(c, it.next());
+		}
+	}
+
 	public static abstract class Mapping {
 
-		protected final Map<String, Mapping> children;
+		private static final Map<String, Mapping> NO_CHILDREN = Collections.emptyMap();
+
+		protected Map<String, Mapping> children;
 		protected Map<String, Collection<Mapping>> childrenById;
 
 		protected Mappings root;
@@ -236,7 +543,8 @@ public class Mappings {
 		protected String jav;
 
 		private Mapping(String src, String dst) {
-			this.children = new LinkedHashMap<>();
+			// allocated once the first child is added
+			this.children = NO_CHILDREN;
 
 			this.src = src;
 			this.dst = dst;
@@ -265,7 +573,8 @@ public class Mappings {
 		}
 
 		public final void set(String dst) {
-			this.dst = validateDst(dst);
+			this.dst = pool(validateDst(dst));
+			modified();
 		}
 
 		public final String getJavadoc() {
@@ -273,33 +582,109 @@ public class Mappings {
 		}
 
 		public final void setJavadoc(String jav) {
-			this.jav = validateDst(jav);
+			this.jav = pool(validateDst(jav));
+			modified();
 		}
 
 		protected final void setRoot(Mappings mappings) {
 			this.root = mappings;
 
+			if (root.strings != null) {
+				pool(root.strings);
+			}
+
 			for (Mapping m : children.values()) {
 				m.setRoot(mappings);
 			}
 
 			if (root.classMappingsById != null) {
 				childrenById = new LinkedHashMap<>();
+
+				// this mapping may have been moved from another tree
+				for (Mapping m : children.values()) {
+					childrenById.computeIfAbsent(getId(m), key -> new LinkedHashSet<>()).add(m);
+				}
 			}
 		}
 
+		protected void pool(StringPool strings) {
+			src = strings.get(src);
+			dst = strings.get(dst);
+			jav = strings.get(jav);
+		}
+
+		/**
+		 * Mark the top level class of this mapping as modified, so that
+		 * it is validated again the next time it is shared.
+		 */
+		private void modified() {
+			Mapping m = this;
+
+			while (m.parent != null) {
+				m = m.parent;
+			}
+
+			if (m instanceof ClassMapping) {
+				((ClassMapping)m).validatedBy = null;
+			}
+		}
+
+		protected final void adopt(Mappings mappings) {
+			this.root = mappings;
+			// the inverse belongs to the previous tree
+			this.inverted = null;
+
+			for (Mapping m : children.values()) {
+				m.adopt(mappings);
+			}
+		}
+
+		private String pool(String s) {
+			return (root == null || root.strings == null) ? s : root.strings.get(s);
+		}
+
+		/**
+		 * Check whether the given key is the key of this mapping,
+		 * without computing the key itself.
+		 */
+		protected boolean hasKey(String key) {
+			return key().equals(key);
+		}
+
+		/**
+		 * Check whether this mapping is a field or method with
+		 * the given name and descriptor.
+		 */
+		protected boolean hasKey(String name, String desc) {
+			return false;
+		}
+
 		public Mapping getParent() {
 			return parent;
 		}
 
 		public final Mapping getChild(MappingTarget target, String key) {
-			Mapping m = children.get(key);
+			return checkTarget(children.get(key), target);
+		}
 
-			if (m != null && m.target() != target) {
-				throw new IllegalStateException("child with key " + m.key() + " has target " + m.target() + " but target " + target + " was requested!");
+		/**
+		 * Returns the child of this mapping with the same target and key
+		 * as the given mapping, without building the key of fields and
+		 * methods.
+		 */
+		public final Mapping getChild(Mapping m) {
+			switch (m.target()) {
+			case CLASS:
+				return getClass(m.src);
+			case FIELD:
+				return getField(m.src, ((FieldMapping)m).desc);
+			case METHOD:
+				return getMethod(m.src, ((MethodMapping)m).desc);
+			case PARAMETER:
+				return getParameter(m.src, ((ParameterMapping)m).index);
 			}
 
-			return m;
+			throw new IllegalStateException("invalid child target " + m.target());
 		}
 
 		public final ClassMapping getClass(String name) {
@@ -311,7 +696,11 @@ public class Mappings {
 		}
 
 		public final FieldMapping getField(String name, String desc) {
-			return getField(FieldMapping.key(name, desc));
+			return (FieldMapping)getMember(MappingTarget.FIELD, name, desc);
+		}
+
+		public final FieldMapping getField(MemberKey key) {
+			return (FieldMapping)getMember(MappingTarget.FIELD, key);
 		}
 
 		private FieldMapping getField(String key) {
@@ -319,13 +708,60 @@ public class Mappings {
 		}
 
 		public final MethodMapping getMethod(String name, String desc) {
-			return getMethod(MethodMapping.key(name, desc));
+			return (MethodMapping)getMember(MappingTarget.METHOD, name, desc);
+		}
+
+		public final MethodMapping getMethod(MemberKey key) {
+			return (MethodMapping)getMember(MappingTarget.METHOD, key);
 		}
 
 		private MethodMapping getMethod(String key) {
 			return (MethodMapping)getChild(MappingTarget.METHOD, key);
 		}
 
+		@SuppressWarnings("unchecked")
+		private Mapping getMember(MappingTarget target, String name, String desc) {
+			if (children.isEmpty()) {
+				return null;
+			}
+
+			Mapping m;
+
+			// compact tables can be searched without building the key
+			if (children instanceof CompactMappingTable) {
+				m = ((CompactMappingTable<Mapping>)children).get(name, desc);
+			} else {
+				m = children.get(FieldMapping.key(name, desc));
+			}
+
+			return checkTarget(m, target);
+		}
+
+		@SuppressWarnings("unchecked")
+		private Mapping getMember(MappingTarget target, MemberKey key) {
+			if (children.isEmpty()) {
+				return null;
+			}
+
+			Mapping m;
+
+			if (children instanceof CompactMappingTable) {
+				m = ((CompactMappingTable<Mapping>)children).get(key);
+			} else {
+				m = children.get(key.toString());
+			}
+
+			return checkTarget(m, target);
+		}
+
+		private static Mapping checkTarget(Mapping m, MappingTarget target) {
+			if (m != null && m.target() != target) {
+				throw new IllegalStateException("child with key " + m.key() + " has target " + m.target() + " but target " + target + " was requested!");
+			}
+
+			return m;
+		}
+
 		public final ParameterMapping getParameter(String name, int index) {
 			return getParameter(ParameterMapping.key(name, index));
 		}
@@ -407,10 +843,16 @@ public class Mappings {
 			m.setRoot(root);
 			m.parent = this;
 
+			if (children == NO_CHILDREN) {
+				children = (root == null || root.strings == null) ? new LinkedHashMap<>() : new CompactMappingTable<>();
+			}
+
 			children.compute(m.key(), (key, value) -> {
 				return checkReplace(value, m);
 			});
 
+			modified();
+
 			if (childrenById != null) {
 				String id = getId(m);
 				childrenById.computeIfAbsent(id, key -> new LinkedHashSet<>()).add(m);
@@ -475,6 +917,7 @@ public class Mappings {
 		public final Mapping removeChild(Mapping m) {
 			if (m.parent == this) {
 				children.remove(m.key());
+				modified();
 
 				if (childrenById != null) {
 					String id = getId(m);
@@ -554,21 +997,34 @@ public class Mappings {
 
 		protected abstract Mapping inverted();
 
-		protected boolean validate() {
-			dst = validateDst(dst);
-			jav = validateDst(jav);
+		/**
+		 * Validate this mapping and its children, removing the children
+		 * that are not valid. If not modifying, this only checks whether
+		 * this mapping is valid and would be left unchanged.
+		 */
+		protected boolean validate(MappingValidator validator, boolean modify) {
+			if (modify) {
+				dst = validateDst(dst);
+				jav = validateDst(jav);
+			} else if (dst == null || jav == null) {
+				return false;
+			}
 
 			Iterator<Mapping> it = children.values().iterator();
 
 			while (it.hasNext()) {
 				Mapping m = it.next();
 
-				if (!m.validate()) {
+				if (!m.validate(validator, modify)) {
+					if (!modify) {
+						return false;
+					}
+
 					it.remove();
 				}
 			}
 
-			return root.validator.validate(this);
+			return validator.validate(this);
 		}
 
 		protected Mapping copy(Mapping copy) {
@@ -609,6 +1065,11 @@ public class Mappings {
 
 	public static class ClassMapping extends Mapping {
 
+		// the number of other mappings this top level class is shared with
+		private int shares;
+		// the validator this top level class last passed, if unmodified since
+		private MappingValidator validatedBy;
+
 		private ClassMapping(String src, String dst) {
 			super(src, dst);
 		}
@@ -648,9 +1109,9 @@ public class Mappings {
 		}
 
 		@Override
-		protected boolean validate() {
+		protected boolean validate(MappingValidator validator, boolean modify) {
 			if (dst.isEmpty()) {
-				return super.validate();
+				return super.validate(validator, modify);
 			}
 
 			if (MappingUtils.parseInnerClasses) {
@@ -661,7 +1122,7 @@ public class Mappings {
 				String[] srcArgs = src.split("[$]");
 
 				if (srcArgs.length == 1) {
-					return super.validate();
+					return super.validate(validator, modify);
 				}
 
 				int i = src.lastIndexOf('$');
@@ -672,7 +1133,7 @@ public class Mappings {
 				}
 			}
 
-			return super.validate();
+			return super.validate(validator, modify);
 		}
 
 		public String getComplete() {
@@ -729,6 +1190,22 @@ public class Mappings {
 			return (ClassMapping)parent;
 		}
 
+		@Override
+		protected void pool(StringPool strings) {
+			super.pool(strings);
+			desc = strings.get(desc);
+		}
+
+		@Override
+		protected boolean hasKey(String key) {
+			return isKey(key, src, desc);
+		}
+
+		@Override
+		protected boolean hasKey(String name, String desc) {
+			return src.equals(name) && this.desc.equals(desc);
+		}
+
 		@Override
 		public FieldMapping invert() {
 			return (FieldMapping)super.invert();
@@ -793,6 +1270,22 @@ public class Mappings {
 			return (ClassMapping)parent;
 		}
 
+		@Override
+		protected void pool(StringPool strings) {
+			super.pool(strings);
+			desc = strings.get(desc);
+		}
+
+		@Override
+		protected boolean hasKey(String key) {
+			return isKey(key, src, desc);
+		}
+
+		@Override
+		protected boolean hasKey(String name, String desc) {
+			return src.equals(name) && this.desc.equals(desc);
+		}
+
 		@Override
 		public MethodMapping invert() {
 			return (MethodMapping)super.invert();
@@ -910,18 +1403,26 @@ public class Mappings {
 		return dst == null ? "" : dst;
 	}
 
-	private static <T> void sort(Map<String, T> mappings) {
-		Map<String, T> sorted = new TreeMap<>((k1, k2) -> {
-			// attempt to sort by name only
-			// if name matches, sort by name + desc
-			int l1 = k1.indexOf(':');
-			int l2 = k2.indexOf(':');
+	private static boolean isKey(String key, String name, String desc) {
+		// equivalent to key.equals(name + ":" + desc)
+		return key.length() == name.length() + 1 + desc.length()
+			&& key.startsWith(name)
+			&& key.charAt(name.length()) == ':'
+			&& key.endsWith(desc);
+	}
+
+	private static <T> void trimToSize(Map<String, T> mappings) {
+		if (mappings instanceof CompactMappingTable) {
+			((CompactMappingTable<?>)mappings).trimToSize();
+		}
 
-			if (l1 < 0) l1 = k1.length();
-			if (l2 < 0) l2 = k2.length();
+		for (T mapping : mappings.values()) {
+			trimToSize(((Mapping)mapping).children);
+		}
+	}
 
-			return l1 == l2 ? k1.compareTo(k2) : l1 - l2;
-		});
+	private static <T> void sort(Map<String, T> mappings) {
+		Map<String, T> sorted = new TreeMap<>(Mappings::compareKeys);
 
 		for (Entry<String, T> entry : mappings.entrySet()) {
 			String key = entry.getKey();
@@ -0,0 +1,111 @@
+package net.ornithemc.mappingutils.io;
+
+import net.ornithemc.mappingutils.io.Mappings.ClassMapping;
+import net.ornithemc.mappingutils.io.Mappings.FieldMapping;
+import net.ornithemc.mappingutils.io.Mappings.MethodMapping;
+import net.ornithemc.mappingutils.io.Mappings.ParameterMapping;
+
+/**
+ * A visitor that collects all visited entries into a {@link Mappings} tree.
+ */
+public class MappingsBuilder implements MappingsVisitor {
+
+	private final Mappings mappings;
+
+	private ClassMapping c;
+	private FieldMapping f;
+	private MethodMapping m;
+	private ParameterMapping p;
+
+	public MappingsBuilder(Mappings mappings) {
+		this.mappings = mappings;
+	}
+
+	public Mappings getMappings() {
+		return mappings;
+	}
+
+	@Override
+	public void visitHeader(MappingNamespace srcNamespace, MappingNamespace dstNamespace) {
+		mappings.setSrcNamespace(srcNamespace);
+		mappings.setDstNamespace(dstNamespace);
+	}
+
+	@Override
+	public boolean visitClass(String src, String dst) {
+		// a duplicate class replaces the one before it
+		return enterClass(mappings.addClass(src, ClassMapping.getSimplified(dst)));
+	}
+
+	@Override
+	public boolean revisitClass(String src, String dst) {
+		ClassMapping c = mappings.getMutableClass(src);
+
+		if (c == null) {
+			c = mappings.addClass(src, ClassMapping.getSimplified(dst));
+		}
+
+		return enterClass(c);
+	}
+
+	private boolean enterClass(ClassMapping c) {
+		this.c = c;
+
+		f = null;
+		m = null;
+		p = null;
+
+		return true;
+	}
+
+	@Override
+	public boolean visitField(String src, String dst, String desc) {
+		f = c.addField(src, dst, desc);
+		m = null;
+		p = null;
+
+		return true;
+	}
+
+	@Override
+	public boolean visitMethod(String src, String dst, String desc) {
+		m = c.addMethod(src, dst, desc);
+		f = null;
+		p = null;
+
+		return true;
+	}
+
+	@Override
+	public boolean visitParameter(String src, String dst, int index) {
+		p = m.addParameter(src, dst, index);
+		f = null;
+
+		return true;
+	}
+
+	@Override
+	public void visitJavadoc(MappingTarget target, String javadoc) {
+		switch (target) {
+		case CLASS:
+			c.setJavadoc(javadoc);
+			break;
+		case FIELD:
+			f.setJavadoc(javadoc);
+			break;
+		case METHOD:
+			m.setJavadoc(javadoc);
+			break;
+		case PARAMETER:
+			p.setJavadoc(javadoc);
+			break;
+		default:
+			throw new IllegalStateException("unknown mapping target " + target);
+		}
+	}
+
+	@Override
+	public void visitEnd() {
+		mappings.trimToSize();
+	}
+}
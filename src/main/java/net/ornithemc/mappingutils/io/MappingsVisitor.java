@@ -0,0 +1,57 @@
+package net.ornithemc.mappingutils.io;
+
+/**
+ * A visitor for mappings that are read one entry at a time, allowing
+ * them to be filtered, searched or transformed without building a full
+ * {@link Mappings} tree.
+ * <p>
+ * Entries are visited in the order they appear in the input. Fields and
+ * methods belong to the class visited last, parameters to the method visited
+ * last. Returning {@code false} from any of the {@code visit} methods for
+ * classes and members skips the contents of that entry.
+ */
+public interface MappingsVisitor {
+
+	default void visitHeader(MappingNamespace srcNamespace, MappingNamespace dstNamespace) {
+	}
+
+	/**
+	 * @param dst the complete mapped name of the class, or the empty string
+	 */
+	default boolean visitClass(String src, String dst) {
+		return true;
+	}
+
+	/**
+	 * Visit a class that was visited before, so that more members can be
+	 * visited for it. Formats that list members apart from their class,
+	 * such as tiny v1, use this rather than {@link #visitClass} to return
+	 * to a class. By default the class is simply visited again.
+	 *
+	 * @param dst the complete mapped name of the class, or the empty string
+	 */
+	default boolean revisitClass(String src, String dst) {
+		return visitClass(src, dst);
+	}
+
+	default boolean visitField(String src, String dst, String desc) {
+		return true;
+	}
+
+	default boolean visitMethod(String src, String dst, String desc) {
+		return true;
+	}
+
+	default boolean visitParameter(String src, String dst, int index) {
+		return true;
+	}
+
+	/**
+	 * @param target the target of the entry these javadocs belong to
+	 */
+	default void visitJavadoc(MappingTarget target, String javadoc) {
+	}
+
+	default void visitEnd() {
+	}
+}
@@ -0,0 +1,106 @@
+package net.ornithemc.mappingutils.io;
+
+import java.util.Objects;
+
+/**
+ * The key of a field or method, made up of its name and descriptor.
+ * <br>
+ * Its hash is that of the equivalent string key ({@code name + ":" + desc}),
+ * but is computed from the hashes of the name and descriptor, without
+ * building that string. This allows mappings to be looked up in tables
+ * that store the hashes of string keys without allocating anything.
+ */
+public final class MemberKey {
+
+	private final String name;
+	private final String desc;
+	private final int hash;
+
+	// the equivalent string key, built on demand
+	private String key;
+
+	public MemberKey(String name, String desc) {
+		this.name = Objects.requireNonNull(name);
+		this.desc = Objects.requireNonNull(desc);
+		this.hash = hash(name, desc);
+	}
+
+	public static MemberKey of(String key) {
+		int i = key.indexOf(':');
+
+		if (i < 0) {
+			throw new IllegalArgumentException("not a member key: " + key);
+		}
+
+		return new MemberKey(key.substring(0, i), key.substring(i + 1));
+	}
+
+	/**
+	 * Returns the hash of {@code name + ":" + desc}, without building
+	 * that string.
+	 */
+	public static int hash(String name, String desc) {
+		// the hash of a + b is hash(a) * 31^length(b) + hash(b)
+		return (31 * name.hashCode() + ':') * pow31(desc.length()) + desc.hashCode();
+	}
+
+	private static int pow31(int n) {
+		int result = 1;
+		int base = 31;
+
+		for (; n > 0; n >>= 1) {
+			if ((n & 1) != 0) {
+				result *= base;
+			}
+
+			base *= base;
+		}
+
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof MemberKey)) {
+			return false;
+		}
+
+		MemberKey key = (MemberKey)obj;
+		return hash == key.hash && name.equals(key.name) && desc.equals(key.desc);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		if (key == null) {
+			key = name + ":" + desc;
+		}
+
+		return key;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getDesc() {
+		return desc;
+	}
+
+	/**
+	 * Check whether this key is equivalent to the given string key.
+	 */
+	public boolean matches(String key) {
+		return key.length() == name.length() + 1 + desc.length()
+			&& key.startsWith(name)
+			&& key.charAt(name.length()) == ':'
+			&& key.endsWith(desc);
+	}
+}
@@ -0,0 +1,33 @@
+package net.ornithemc.mappingutils.io;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A pool of canonical string instances. Names, descriptors and javadocs
+ * repeat heavily across a mapping set (and even more so across versions),
+ * so storing a single instance of each saves a lot of memory. A pool may
+ * be shared between many {@link Mappings} instances, for example between
+ * all versions of a version graph.
+ */
+public class StringPool {
+
+	private final Map<String, String> strings;
+
+	public StringPool() {
+		this.strings = new ConcurrentHashMap<>();
+	}
+
+	public String get(String s) {
+		if (s == null || s.isEmpty()) {
+			return "";
+		}
+
+		String pooled = strings.putIfAbsent(s, s);
+		return pooled == null ? s : pooled;
+	}
+
+	public int size() {
+		return strings.size();
+	}
+}
@@ -0,0 +1,17 @@
+package net.ornithemc.mappingutils.io.binary;
+
+/**
+ * Constants of the binary snapshot format, shared by the mappings and the
+ * diff codecs. Every snapshot starts with the magic, the version and the
+ * kind of record it holds.
+ */
+public class BinaryFormat {
+
+	// "MUBS" - mapping utils binary snapshot
+	public static final int MAGIC = 0x4D554253;
+	public static final int VERSION = 1;
+
+	public static final byte MAPPINGS = 0;
+	public static final byte DIFF = 1;
+
+}
@@ -0,0 +1,90 @@
+package net.ornithemc.mappingutils.io.binary;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads a binary snapshot written by {@link BinaryOutput} from a buffer
+ * that holds the whole file. The string table is decoded up front, after
+ * which strings are read as plain indices.
+ */
+public class BinaryInput {
+
+	private final ByteBuffer buffer;
+	private final String[] strings;
+
+	public BinaryInput(ByteBuffer buffer, byte kind) {
+		this.buffer = buffer;
+
+		if (buffer.remaining() < 6) {
+			throw new IllegalStateException("not a binary snapshot - too short");
+		}
+
+		int magic = buffer.getInt();
+		int version = buffer.get();
+		int actualKind = buffer.get();
+
+		if (magic != BinaryFormat.MAGIC) {
+			throw new IllegalStateException("not a binary snapshot - bad magic " + Integer.toHexString(magic));
+		}
+		if (version != BinaryFormat.VERSION) {
+			throw new IllegalStateException("cannot read binary snapshot version " + version + " - expected " + BinaryFormat.VERSION);
+		}
+		if (actualKind != kind) {
+			throw new IllegalStateException("cannot read binary snapshot of kind " + actualKind + " - expected " + kind);
+		}
+
+		int stringCount = readVarInt();
+
+		if (stringCount < 0) {
+			throw new IllegalStateException("negative string table size " + stringCount);
+		}
+
+		this.strings = new String[stringCount];
+
+		byte[] bytes = new byte[64];
+
+		for (int i = 0; i < strings.length; i++) {
+			int length = readVarInt();
+
+			if (length < 0) {
+				throw new IllegalStateException("negative length " + length + " of string " + i);
+			}
+			if (length > bytes.length) {
+				bytes = new byte[Math.max(length, 2 * bytes.length)];
+			}
+
+			buffer.get(bytes, 0, length);
+			strings[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+		}
+	}
+
+	public int readVarInt() {
+		int value = 0;
+
+		for (int shift = 0; shift < 32; shift += 7) {
+			byte b = buffer.get();
+			value |= (b & 0x7F) << shift;
+
+			if (b >= 0) {
+				return value;
+			}
+		}
+
+		throw new IllegalStateException("malformed varint at position " + buffer.position());
+	}
+
+	public String readString() {
+		int index = readVarInt();
+
+		if (index < 0 || index >= strings.length) {
+			throw new IllegalStateException("string index " + index + " out of bounds for string table of size " + strings.length);
+		}
+
+		return strings[index];
+	}
+
+	public boolean hasRemaining() {
+		return buffer.hasRemaining();
+	}
+}
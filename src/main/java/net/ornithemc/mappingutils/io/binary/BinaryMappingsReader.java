@@ -0,0 +1,132 @@
+package net.ornithemc.mappingutils.io.binary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+import net.ornithemc.mappingutils.io.MappingFiles;
+import net.ornithemc.mappingutils.io.MappingNamespace;
+import net.ornithemc.mappingutils.io.MappingTarget;
+import net.ornithemc.mappingutils.io.Mappings;
+import net.ornithemc.mappingutils.io.MappingsBuilder;
+import net.ornithemc.mappingutils.io.MappingsVisitor;
+
+public class BinaryMappingsReader {
+
+	public static Mappings read(Path path, boolean cacheById) throws IOException {
+		return read(path, new Mappings(cacheById));
+	}
+
+	public static Mappings read(Path path, Mappings mappings) throws IOException {
+		accept(path, new MappingsBuilder(mappings));
+		return mappings;
+	}
+
+	public static void accept(Path path, MappingsVisitor visitor) throws IOException {
+		try {
+			accept(MappingFiles.readBytes(path), visitor);
+		} catch (Exception e) {
+			throw new IOException("error reading " + path.toString(), e);
+		}
+	}
+
+	public static void accept(ByteBuffer buffer, MappingsVisitor visitor) {
+		new BinaryMappingsReader(buffer, visitor).accept();
+	}
+
+	private final BinaryInput input;
+	private final MappingsVisitor visitor;
+
+	private BinaryMappingsReader(ByteBuffer buffer, MappingsVisitor visitor) {
+		this.input = new BinaryInput(buffer, BinaryFormat.MAPPINGS);
+		this.visitor = visitor;
+	}
+
+	public void accept() {
+		String srcNamespace = input.readString();
+		String dstNamespace = input.readString();
+
+		visitor.visitHeader(new MappingNamespace(srcNamespace), new MappingNamespace(dstNamespace));
+
+		int classes = input.readVarInt();
+
+		for (int i = 0; i < classes; i++) {
+			readClass();
+		}
+
+		visitor.visitEnd();
+	}
+
+	private void readClass() {
+		String src = input.readString();
+		String dst = input.readString();
+		String jav = input.readString();
+
+		boolean visit = visitor.visitClass(src, dst);
+
+		if (visit && !jav.isEmpty()) {
+			visitor.visitJavadoc(MappingTarget.CLASS, jav);
+		}
+
+		int fields = input.readVarInt();
+
+		for (int i = 0; i < fields; i++) {
+			readField(visit);
+		}
+
+		int methods = input.readVarInt();
+
+		for (int i = 0; i < methods; i++) {
+			readMethod(visit);
+		}
+
+		int classes = input.readVarInt();
+
+		// like in tiny files, inner classes are visited separately
+		// even if the contents of their outer class were skipped
+		for (int i = 0; i < classes; i++) {
+			readClass();
+		}
+	}
+
+	private void readField(boolean visit) {
+		String src = input.readString();
+		String dst = input.readString();
+		String desc = input.readString();
+		String jav = input.readString();
+
+		if (visit && visitor.visitField(src, dst, desc) && !jav.isEmpty()) {
+			visitor.visitJavadoc(MappingTarget.FIELD, jav);
+		}
+	}
+
+	private void readMethod(boolean visit) {
+		String src = input.readString();
+		String dst = input.readString();
+		String desc = input.readString();
+		String jav = input.readString();
+
+		visit = visit && visitor.visitMethod(src, dst, desc);
+
+		if (visit && !jav.isEmpty()) {
+			visitor.visitJavadoc(MappingTarget.METHOD, jav);
+		}
+
+		int parameters = input.readVarInt();
+
+		for (int i = 0; i < parameters; i++) {
+			readParameter(visit);
+		}
+	}
+
+	private void readParameter(boolean visit) {
+		int index = input.readVarInt();
+		String src = input.readString();
+		String dst = input.readString();
+		String jav = input.readString();
+
+		if (visit && visitor.visitParameter(src, dst, index) && !jav.isEmpty()) {
+			visitor.visitJavadoc(MappingTarget.PARAMETER, jav);
+		}
+	}
+}
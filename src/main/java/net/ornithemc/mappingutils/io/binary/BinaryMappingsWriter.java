@@ -0,0 +1,104 @@
+package net.ornithemc.mappingutils.io.binary;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import net.ornithemc.mappingutils.io.Mappings;
+import net.ornithemc.mappingutils.io.Mappings.ClassMapping;
+import net.ornithemc.mappingutils.io.Mappings.FieldMapping;
+import net.ornithemc.mappingutils.io.Mappings.MethodMapping;
+import net.ornithemc.mappingutils.io.Mappings.ParameterMapping;
+
+public class BinaryMappingsWriter {
+
+	public static void write(Path path, Mappings mappings) throws IOException {
+		try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(path))) {
+			write(os, mappings);
+		} catch (Exception e) {
+			throw new IOException("error writing " + path.toString(), e);
+		}
+	}
+
+	public static void write(OutputStream os, Mappings mappings) throws IOException {
+		new BinaryMappingsWriter(os, mappings).write();
+	}
+
+	private final OutputStream os;
+	private final Mappings mappings;
+	private final BinaryOutput output;
+
+	private BinaryMappingsWriter(OutputStream os, Mappings mappings) {
+		mappings.validate();
+
+		this.os = os;
+		this.mappings = mappings;
+		this.output = new BinaryOutput(BinaryFormat.MAPPINGS);
+	}
+
+	public void write() throws IOException {
+		output.writeString(mappings.getSrcNamespace().toString());
+		output.writeString(mappings.getDstNamespace().toString());
+
+		output.writeVarInt(mappings.getTopLevelClasses().size());
+
+		for (ClassMapping c : mappings.getTopLevelClasses()) {
+			writeClass(c);
+		}
+
+		output.writeTo(os);
+	}
+
+	private void writeClass(ClassMapping c) {
+		output.writeString(c.src());
+		output.writeString(c.get().isEmpty() ? "" : c.getComplete());
+		output.writeString(c.getJavadoc());
+
+		output.writeVarInt(c.getFields().size());
+
+		for (FieldMapping f : c.getFields()) {
+			writeField(f);
+		}
+
+		output.writeVarInt(c.getMethods().size());
+
+		for (MethodMapping m : c.getMethods()) {
+			writeMethod(m);
+		}
+
+		output.writeVarInt(c.getClasses().size());
+
+		for (ClassMapping cc : c.getClasses()) {
+			writeClass(cc);
+		}
+	}
+
+	private void writeField(FieldMapping f) {
+		output.writeString(f.src());
+		output.writeString(f.get());
+		output.writeString(f.getDesc());
+		output.writeString(f.getJavadoc());
+	}
+
+	private void writeMethod(MethodMapping m) {
+		output.writeString(m.src());
+		output.writeString(m.get());
+		output.writeString(m.getDesc());
+		output.writeString(m.getJavadoc());
+
+		output.writeVarInt(m.getParameters().size());
+
+		for (ParameterMapping p : m.getParameters()) {
+			writeParameter(p);
+		}
+	}
+
+	private void writeParameter(ParameterMapping p) {
+		output.writeVarInt(p.getIndex());
+		output.writeString(p.src());
+		output.writeString(p.get());
+		output.writeString(p.getJavadoc());
+	}
+}
@@ -0,0 +1,108 @@
+package net.ornithemc.mappingutils.io.binary;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects a binary snapshot in memory. Strings are written as indices into
+ * a string table, which is written ahead of the body once it is complete.
+ * Numbers are written as unsigned LEB128 varints.
+ */
+public class BinaryOutput {
+
+	private final byte kind;
+
+	private final Map<String, Integer> indices;
+	private final List<String> strings;
+
+	private byte[] body;
+	private int size;
+
+	public BinaryOutput(byte kind) {
+		this.kind = kind;
+
+		this.indices = new HashMap<>();
+		this.strings = new ArrayList<>();
+
+		this.body = new byte[1 << 12];
+
+		// the empty string is always at index 0
+		index("");
+	}
+
+	public void writeVarInt(int value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("cannot write negative varint " + value);
+		}
+
+		ensureCapacity(5);
+
+		while ((value & ~0x7F) != 0) {
+			body[size++] = (byte)((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+
+		body[size++] = (byte)value;
+	}
+
+	public void writeString(String s) {
+		writeVarInt(index(s == null ? "" : s));
+	}
+
+	public void writeTo(OutputStream os) throws IOException {
+		DataOutputStream out = new DataOutputStream(os);
+
+		out.writeInt(BinaryFormat.MAGIC);
+		out.writeByte(BinaryFormat.VERSION);
+		out.writeByte(kind);
+
+		BinaryOutput table = new BinaryOutput();
+		table.writeVarInt(strings.size());
+
+		for (String s : strings) {
+			byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+
+			table.writeVarInt(bytes.length);
+			table.ensureCapacity(bytes.length);
+
+			System.arraycopy(bytes, 0, table.body, table.size, bytes.length);
+			table.size += bytes.length;
+		}
+
+		out.write(table.body, 0, table.size);
+		out.write(body, 0, size);
+		out.flush();
+	}
+
+	// an output for the string table itself
+	private BinaryOutput() {
+		this.kind = 0;
+		this.indices = null;
+		this.strings = null;
+		this.body = new byte[1 << 12];
+	}
+
+	private int index(String s) {
+		Integer index = indices.get(s);
+
+		if (index == null) {
+			indices.put(s, index = strings.size());
+			strings.add(s);
+		}
+
+		return index;
+	}
+
+	private void ensureCapacity(int bytes) {
+		if (size + bytes > body.length) {
+			body = Arrays.copyOf(body, Math.max(2 * body.length, size + bytes));
+		}
+	}
+}
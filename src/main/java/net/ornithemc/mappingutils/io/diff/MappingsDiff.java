@@ -15,6 +15,8 @@ import org.objectweb.asm.Type;
 
 import net.ornithemc.mappingutils.MappingUtils;
 import net.ornithemc.mappingutils.io.MappingTarget;
+import net.ornithemc.mappingutils.io.Mappings;
+import net.ornithemc.mappingutils.io.MemberKey;
 import net.ornithemc.mappingutils.io.Mappings.Mapping;
 
 public class MappingsDiff {
@@ -103,7 +105,14 @@ public class MappingsDiff {
 		return addClass(new ClassDiff(src, dstA, dstB));
 	}
 
-	private ClassDiff addClass(ClassDiff c) {
+	/**
+	 * Add the given class diff, along with its children, to these
+	 * diffs. The class diff may be moved from another tree, but
+	 * it will not be removed from that tree. This is how diffs that
+	 * were generated separately, for example on different threads,
+	 * are merged.
+	 */
+	public ClassDiff addClass(ClassDiff c) {
 		ClassDiff parent = findParent(c.src(), true);
 
 		if (parent == null) {
@@ -257,6 +266,11 @@ public class MappingsDiff {
 
 			if (root.classDiffsById != null) {
 				childrenById = new LinkedHashMap<>();
+
+				// this diff may have been moved from another tree
+				for (Diff d : children.values()) {
+					childrenById.computeIfAbsent(Mapping.getId(d.src()), key -> new LinkedHashSet<>()).add(d);
+				}
 			}
 		}
 
@@ -286,6 +300,10 @@ public class MappingsDiff {
 			return getField(FieldDiff.key(name, desc));
 		}
 
+		public final FieldDiff getField(MemberKey key) {
+			return getField(key.toString());
+		}
+
 		private FieldDiff getField(String key) {
 			return (FieldDiff)getChild(MappingTarget.FIELD, key);
 		}
@@ -294,6 +312,10 @@ public class MappingsDiff {
 			return getMethod(MethodDiff.key(name, desc));
 		}
 
+		public final MethodDiff getMethod(MemberKey key) {
+			return getMethod(key.toString());
+		}
+
 		private MethodDiff getMethod(String key) {
 			return (MethodDiff)getChild(MappingTarget.METHOD, key);
 		}
@@ -815,17 +837,7 @@ public class MappingsDiff {
 	}
 
 	private static <T> void sort(Map<String, T> mappings) {
-		Map<String, T> sorted = new TreeMap<>((k1, k2) -> {
-			// attempt to sort by name only
-			// if name matches, sort by name + desc
-			int l1 = k1.indexOf(':');
-			int l2 = k2.indexOf(':');
-
-			if (l1 < 0) l1 = k1.length();
-			if (l2 < 0) l2 = k2.length();
-
-			return l1 == l2 ? k1.compareTo(k2) : l1 - l2;
-		});
+		Map<String, T> sorted = new TreeMap<>(Mappings::compareKeys);
 
 		for (Entry<String, T> entry : mappings.entrySet()) {
 			String key = entry.getKey();
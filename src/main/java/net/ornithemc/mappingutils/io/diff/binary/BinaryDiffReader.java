@@ -0,0 +1,115 @@
+package net.ornithemc.mappingutils.io.diff.binary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+import net.ornithemc.mappingutils.io.MappingFiles;
+import net.ornithemc.mappingutils.io.binary.BinaryFormat;
+import net.ornithemc.mappingutils.io.binary.BinaryInput;
+import net.ornithemc.mappingutils.io.diff.DiffSide;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff.ClassDiff;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff.Diff;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff.JavadocDiff;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff.MethodDiff;
+
+public class BinaryDiffReader {
+
+	public static MappingsDiff read(Path path, boolean cacheById) throws IOException {
+		try {
+			return read(MappingFiles.readBytes(path), cacheById);
+		} catch (Exception e) {
+			throw new IOException("error reading " + path.toString(), e);
+		}
+	}
+
+	public static MappingsDiff read(ByteBuffer buffer, boolean cacheById) {
+		return new BinaryDiffReader(buffer, cacheById).read();
+	}
+
+	private final BinaryInput input;
+	private final MappingsDiff diff;
+
+	private BinaryDiffReader(ByteBuffer buffer, boolean cacheById) {
+		this.input = new BinaryInput(buffer, BinaryFormat.DIFF);
+		this.diff = new MappingsDiff(cacheById);
+	}
+
+	public MappingsDiff read() {
+		int classes = input.readVarInt();
+
+		for (int i = 0; i < classes; i++) {
+			readClass();
+		}
+
+		return diff;
+	}
+
+	private void readClass() {
+		String src = input.readString();
+		String dstA = input.readString();
+		String dstB = input.readString();
+
+		// like the tiny readers, add inner classes through the root
+		// so that they are nested according to MappingUtils.parseInnerClasses
+		ClassDiff c = diff.addClass(src, dstA, dstB);
+		readJavadoc(c);
+
+		int fields = input.readVarInt();
+
+		for (int i = 0; i < fields; i++) {
+			src = input.readString();
+			String desc = input.readString();
+			dstA = input.readString();
+			dstB = input.readString();
+
+			readJavadoc(c.addField(src, dstA, dstB, desc));
+		}
+
+		int methods = input.readVarInt();
+
+		for (int i = 0; i < methods; i++) {
+			readMethod(c);
+		}
+
+		int innerClasses = input.readVarInt();
+
+		for (int i = 0; i < innerClasses; i++) {
+			readClass();
+		}
+	}
+
+	private void readMethod(ClassDiff c) {
+		String src = input.readString();
+		String desc = input.readString();
+		String dstA = input.readString();
+		String dstB = input.readString();
+
+		MethodDiff m = c.addMethod(src, dstA, dstB, desc);
+		readJavadoc(m);
+
+		int parameters = input.readVarInt();
+
+		for (int i = 0; i < parameters; i++) {
+			int index = input.readVarInt();
+			src = input.readString();
+			dstA = input.readString();
+			dstB = input.readString();
+
+			readJavadoc(m.addParameter(src, dstA, dstB, index));
+		}
+	}
+
+	private void readJavadoc(Diff d) {
+		String javA = input.readString();
+		String javB = input.readString();
+
+		if (!javA.isEmpty() || !javB.isEmpty()) {
+			JavadocDiff jav = d.getJavadoc();
+
+			jav.set(DiffSide.A, javA);
+			jav.set(DiffSide.B, javB);
+		}
+	}
+}
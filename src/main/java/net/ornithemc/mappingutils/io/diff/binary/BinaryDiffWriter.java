@@ -0,0 +1,111 @@
+package net.ornithemc.mappingutils.io.diff.binary;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import net.ornithemc.mappingutils.io.binary.BinaryFormat;
+import net.ornithemc.mappingutils.io.binary.BinaryOutput;
+import net.ornithemc.mappingutils.io.diff.DiffSide;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff.ClassDiff;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff.Diff;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff.FieldDiff;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff.JavadocDiff;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff.MethodDiff;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff.ParameterDiff;
+
+public class BinaryDiffWriter {
+
+	public static void write(Path path, MappingsDiff diff) throws IOException {
+		try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(path))) {
+			write(os, diff);
+		} catch (Exception e) {
+			throw new IOException("error writing " + path.toString(), e);
+		}
+	}
+
+	public static void write(OutputStream os, MappingsDiff diff) throws IOException {
+		new BinaryDiffWriter(os, diff).write();
+	}
+
+	private final OutputStream os;
+	private final MappingsDiff diff;
+	private final BinaryOutput output;
+
+	private BinaryDiffWriter(OutputStream os, MappingsDiff diff) {
+		diff.validate();
+
+		this.os = os;
+		this.diff = diff;
+		this.output = new BinaryOutput(BinaryFormat.DIFF);
+	}
+
+	public void write() throws IOException {
+		output.writeVarInt(diff.getTopLevelClasses().size());
+
+		for (ClassDiff c : diff.getTopLevelClasses()) {
+			writeClass(c);
+		}
+
+		output.writeTo(os);
+	}
+
+	private void writeClass(ClassDiff c) {
+		output.writeString(c.src());
+		writeDiff(c);
+
+		output.writeVarInt(c.getFields().size());
+
+		for (FieldDiff f : c.getFields()) {
+			writeField(f);
+		}
+
+		output.writeVarInt(c.getMethods().size());
+
+		for (MethodDiff m : c.getMethods()) {
+			writeMethod(m);
+		}
+
+		output.writeVarInt(c.getClasses().size());
+
+		for (ClassDiff cc : c.getClasses()) {
+			writeClass(cc);
+		}
+	}
+
+	private void writeField(FieldDiff f) {
+		output.writeString(f.src());
+		output.writeString(f.getDesc());
+		writeDiff(f);
+	}
+
+	private void writeMethod(MethodDiff m) {
+		output.writeString(m.src());
+		output.writeString(m.getDesc());
+		writeDiff(m);
+
+		output.writeVarInt(m.getParameters().size());
+
+		for (ParameterDiff p : m.getParameters()) {
+			writeParameter(p);
+		}
+	}
+
+	private void writeParameter(ParameterDiff p) {
+		output.writeVarInt(p.getIndex());
+		output.writeString(p.src());
+		writeDiff(p);
+	}
+
+	private void writeDiff(Diff d) {
+		JavadocDiff jav = d.getJavadoc();
+
+		output.writeString(d.get(DiffSide.A));
+		output.writeString(d.get(DiffSide.B));
+		output.writeString(jav.get(DiffSide.A));
+		output.writeString(jav.get(DiffSide.B));
+	}
+}
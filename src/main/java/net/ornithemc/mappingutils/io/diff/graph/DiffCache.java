@@ -0,0 +1,100 @@
+package net.ornithemc.mappingutils.io.diff.graph;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps track of the mappings and diffs that the versions of a graph
+ * have loaded, and evicts the least recently used ones when their total
+ * size exceeds the budget. Size is measured in bytes of the files they
+ * were read from, as an estimate of the memory they take up.
+ * <br>
+ * Only the mappings and diffs of versions that are not dirty can be
+ * evicted. Evicted mappings and diffs are only weakly referenced, and
+ * are read again on the next access if they have been collected since.
+ * <br>
+ * A cache is not thread-safe, and neither are the versions that use it.
+ * Mappings and diffs should be loaded, and versions marked dirty, from
+ * one thread only.
+ */
+public class DiffCache {
+
+	private final long budget;
+	private final Map<Key, Long> entries;
+
+	private long size;
+
+	public DiffCache(long budget) {
+		if (budget < 0) {
+			throw new IllegalArgumentException("budget cannot be negative: " + budget);
+		}
+
+		this.budget = budget;
+		this.entries = new LinkedHashMap<>(16, 0.75F, true);
+	}
+
+	public long getBudget() {
+		return budget;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	void accessed(Version version, Version parent) {
+		entries.get(new Key(version, parent));
+	}
+
+	void loaded(Version version, Version parent, long entrySize) {
+		Long old = entries.put(new Key(version, parent), entrySize);
+
+		if (old != null) {
+			size -= old;
+		}
+
+		size += entrySize;
+
+		for (Iterator<Map.Entry<Key, Long>> it = entries.entrySet().iterator(); size > budget && it.hasNext(); ) {
+			Map.Entry<Key, Long> entry = it.next();
+			Key key = entry.getKey();
+
+			// the most recent entry is the one that was just loaded
+			if (!key.version.isDirty() && it.hasNext()) {
+				key.version.evict(key.parent);
+
+				size -= entry.getValue();
+				it.remove();
+			}
+		}
+	}
+
+	private static class Key {
+
+		private final Version version;
+		private final Version parent;
+
+		Key(Version version, Version parent) {
+			this.version = version;
+			this.parent = parent;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+
+			Key key = (Key)obj;
+			return version == key.version && parent == key.parent;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * version.hashCode() + parent.hashCode();
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package net.ornithemc.mappingutils.io.diff.graph;
+
+import java.util.Objects;
+
+import net.ornithemc.mappingutils.io.MappingTarget;
+
+/**
+ * A query for mappings in a version graph, by key or name, optionally
+ * restricted to one mapping target.
+ */
+public class MappingQuery {
+
+	private final MappingTarget target;
+	private final String key;
+
+	public MappingQuery(String key) {
+		this(null, key);
+	}
+
+	public MappingQuery(MappingTarget target, String key) {
+		this.target = target;
+		this.key = Objects.requireNonNull(key);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof MappingQuery)) {
+			return false;
+		}
+
+		MappingQuery query = (MappingQuery)obj;
+		return target == query.target && key.equals(query.key);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Objects.hashCode(target) + key.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return (target == null) ? key : (target + " " + key);
+	}
+
+	/**
+	 * The target of the mappings to look for, or {@code null} if
+	 * mappings of any target should be found.
+	 */
+	public MappingTarget getTarget() {
+		return target;
+	}
+
+	public String getKey() {
+		return key;
+	}
+}
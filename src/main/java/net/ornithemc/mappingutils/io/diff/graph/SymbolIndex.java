@@ -0,0 +1,393 @@
+package net.ornithemc.mappingutils.io.diff.graph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import net.ornithemc.mappingutils.Pair;
+import net.ornithemc.mappingutils.io.MappingTarget;
+import net.ornithemc.mappingutils.io.Mappings.Mapping;
+import net.ornithemc.mappingutils.io.diff.DiffSide;
+import net.ornithemc.mappingutils.io.diff.MappingsDiff.Diff;
+
+/**
+ * An inverted index from the names and keys of mappings to the root
+ * mappings and diffs of a version graph that contain them. For classes,
+ * the simple and inner names and the packages are indexed as well, so that
+ * each of these can be looked up.
+ * <br>
+ * The index is stored in the {@value #FILE_NAME} file in the directory of
+ * the graph. When it is opened, only the files that were added or changed
+ * since it was last stored are read and indexed again. A file counts as
+ * changed if its size or modification time differs from the one that was
+ * stored. A file that was modified just before it was indexed could be
+ * rewritten without its modification time changing, so for those files
+ * a CRC32 is stored as well, and checked the next time the index is
+ * opened. If the index cannot be stored, for example because the directory
+ * is read-only, it is kept in memory only and built again the next time.
+ */
+public class SymbolIndex {
+
+	public static final String FILE_NAME = ".symbols";
+
+	private static final int MAGIC = 0x53594D32; // "SYM2"
+
+	// modification times may be as coarse as 2 seconds
+	private static final long RACY_MILLIS = 2000;
+	private static final long NO_CRC = -1;
+
+	private final VersionGraph graph;
+	private final Path path;
+
+	private final List<Entry> entries;
+	private final Map<String, BitSet> symbols;
+
+	private boolean dirty;
+
+	private SymbolIndex(VersionGraph graph, Path path) {
+		this.graph = graph;
+		this.path = path;
+
+		this.entries = new ArrayList<>();
+		this.symbols = new HashMap<>();
+	}
+
+	/**
+	 * Open the index of the version graph in the given directory, and bring
+	 * it up to date with the mappings and diffs in that directory.
+	 */
+	public static SymbolIndex of(VersionGraph graph, Path dir) throws IOException {
+		SymbolIndex index = new SymbolIndex(graph, dir.resolve(FILE_NAME));
+
+		if (Files.exists(index.path)) {
+			try {
+				index.read();
+			} catch (IOException e) {
+				// an unreadable index is rebuilt from scratch
+				index.entries.clear();
+				index.symbols.clear();
+			}
+		}
+
+		index.update();
+
+		if (index.dirty) {
+			try {
+				index.write();
+			} catch (IOException e) {
+				// the index is only a cache, so if it cannot be
+				// stored it is still used for this graph
+			}
+		}
+
+		return index;
+	}
+
+	/**
+	 * Returns the versions whose root mappings or diffs contain the given
+	 * symbol, as pairs of version and parent, where the parent of the root
+	 * is the root itself.
+	 */
+	public Set<Pair<Version, Version>> find(String symbol) {
+		Set<Pair<Version, Version>> found = new LinkedHashSet<>();
+		BitSet files = symbols.get(symbol);
+
+		if (files != null) {
+			for (int i = files.nextSetBit(0); i >= 0; i = files.nextSetBit(i + 1)) {
+				Entry entry = entries.get(i);
+				found.add(new Pair<>(entry.version, entry.parent));
+			}
+		}
+
+		return found;
+	}
+
+	private void update() throws IOException {
+		Map<String, Integer> ids = new HashMap<>();
+
+		for (int i = 0; i < entries.size(); i++) {
+			ids.put(entries.get(i).name, i);
+		}
+
+		Set<Integer> present = new HashSet<>();
+		List<Pair<Version, Version>> files = new ArrayList<>();
+
+		long now = System.currentTimeMillis();
+
+		graph.walk(v -> {
+			for (Version p : v.isRoot() ? Collections.singleton(v) : v.parents) {
+				files.add(new Pair<>(v, p));
+			}
+		}, p -> { });
+
+		for (Pair<Version, Version> file : files) {
+			Version v = file.left;
+			Version p = file.right;
+			Path filePath = v.paths.get(p);
+			String name = filePath.getFileName().toString();
+			long size = Files.size(filePath);
+			long modified = Files.getLastModifiedTime(filePath).toMillis();
+			// a file that is rewritten with the same size right after it
+			// was modified may keep its modification time, so only for
+			// such recently modified files the contents are checked too
+			boolean racy = modified > now - RACY_MILLIS;
+
+			Integer id = ids.get(name);
+
+			if (id == null) {
+				id = entries.size();
+				entries.add(null);
+			} else if (isUnchanged(entries.get(id), filePath, size, modified)) {
+				Entry entry = entries.get(id);
+
+				if (entry.crc != NO_CRC && !racy) {
+					// the file can no longer change without its
+					// modification time changing too
+					entry = new Entry(name, size, modified, NO_CRC);
+					entries.set(id, entry);
+
+					dirty = true;
+				}
+
+				entry.version = v;
+				entry.parent = p;
+
+				present.add(id);
+
+				continue;
+			} else {
+				clear(id);
+			}
+
+			Entry entry = new Entry(name, size, modified, racy ? crc(filePath) : NO_CRC);
+			entry.version = v;
+			entry.parent = p;
+
+			entries.set(id, entry);
+			present.add(id);
+
+			index(id, v, p);
+
+			dirty = true;
+		}
+
+		// remove the entries of files that are no longer in the graph
+		if (present.size() < entries.size()) {
+			int[] remap = new int[entries.size()];
+			List<Entry> kept = new ArrayList<>(present.size());
+
+			for (int i = 0; i < entries.size(); i++) {
+				if (present.contains(i)) {
+					remap[i] = kept.size();
+					kept.add(entries.get(i));
+				} else {
+					remap[i] = -1;
+				}
+			}
+
+			for (Map.Entry<String, BitSet> symbol : symbols.entrySet()) {
+				BitSet from = symbol.getValue();
+				BitSet to = new BitSet(kept.size());
+
+				for (int i = from.nextSetBit(0); i >= 0; i = from.nextSetBit(i + 1)) {
+					if (remap[i] >= 0) {
+						to.set(remap[i]);
+					}
+				}
+
+				symbol.setValue(to);
+			}
+
+			symbols.values().removeIf(BitSet::isEmpty);
+
+			entries.clear();
+			entries.addAll(kept);
+
+			dirty = true;
+		}
+	}
+
+	private static boolean isUnchanged(Entry entry, Path path, long size, long modified) throws IOException {
+		return entry.size == size && entry.modified == modified && (entry.crc == NO_CRC || entry.crc == crc(path));
+	}
+
+	private void clear(int id) {
+		for (BitSet files : symbols.values()) {
+			files.clear(id);
+		}
+
+		symbols.values().removeIf(BitSet::isEmpty);
+	}
+
+	private void index(int id, Version v, Version p) throws IOException {
+		if (v.isRoot()) {
+			for (Mapping m : v.getMappings().getTopLevelClasses()) {
+				index(id, m);
+			}
+		} else {
+			for (Diff d : v.getDiff(p).getTopLevelClasses()) {
+				index(id, d);
+			}
+		}
+	}
+
+	private void index(int id, Mapping m) {
+		add(id, m.target(), m.key(), m.src(), m.get());
+
+		for (Mapping cm : m.getChildren()) {
+			index(id, cm);
+		}
+	}
+
+	private void index(int id, Diff d) {
+		add(id, d.target(), d.key(), d.src(), d.get(DiffSide.A), d.get(DiffSide.B));
+
+		for (Diff cd : d.getChildren()) {
+			index(id, cd);
+		}
+	}
+
+	private void add(int id, MappingTarget target, String key, String... names) {
+		add(id, key);
+
+		for (String name : names) {
+			add(id, name);
+
+			if (target == MappingTarget.CLASS) {
+				add(id, name.substring(name.lastIndexOf('/') + 1));
+				add(id, name.substring(name.lastIndexOf('$') + 1));
+
+				for (int i = name.indexOf('/'); i >= 0; i = name.indexOf('/', i + 1)) {
+					add(id, name.substring(0, i + 1));
+				}
+			}
+		}
+	}
+
+	private void add(int id, String symbol) {
+		// unmapped names are empty and are not worth looking up
+		if (symbol.isEmpty()) {
+			return;
+		}
+
+		symbols.computeIfAbsent(symbol, key -> new BitSet()).set(id);
+	}
+
+	private void read() throws IOException {
+		try (DataInputStream is = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+			if (is.readInt() != MAGIC) {
+				throw new IOException("not a symbol index: " + path);
+			}
+
+			int entryCount = is.readInt();
+
+			for (int i = 0; i < entryCount; i++) {
+				String name = is.readUTF();
+				long size = is.readLong();
+				long modified = is.readLong();
+				long crc = is.readLong();
+
+				entries.add(new Entry(name, size, modified, crc));
+			}
+
+			int symbolCount = is.readInt();
+
+			for (int i = 0; i < symbolCount; i++) {
+				String symbol = is.readUTF();
+				BitSet files = BitSet.valueOf(is.readNBytes(is.readInt()));
+
+				symbols.put(symbol, files);
+			}
+		}
+	}
+
+	private void write() throws IOException {
+		Path tmpPath = path.resolveSibling(path.getFileName() + ".tmp");
+
+		try (DataOutputStream os = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpPath)))) {
+			os.writeInt(MAGIC);
+			os.writeInt(entries.size());
+
+			for (Entry entry : entries) {
+				os.writeUTF(entry.name);
+				os.writeLong(entry.size);
+				os.writeLong(entry.modified);
+				os.writeLong(entry.crc);
+			}
+
+			os.writeInt(symbols.size());
+
+			for (Map.Entry<String, BitSet> symbol : symbols.entrySet()) {
+				byte[] files = symbol.getValue().toByteArray();
+
+				os.writeUTF(symbol.getKey());
+				os.writeInt(files.length);
+				os.write(files);
+			}
+		} catch (IOException e) {
+			Files.deleteIfExists(tmpPath);
+			throw new IOException("error writing " + path, e);
+		}
+
+		try {
+			try {
+				Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			Files.deleteIfExists(tmpPath);
+			throw new IOException("error writing " + path, e);
+		}
+
+		dirty = false;
+	}
+
+	private static long crc(Path path) throws IOException {
+		CRC32 crc = new CRC32();
+		byte[] buffer = new byte[1 << 16];
+
+		try (InputStream is = Files.newInputStream(path)) {
+			for (int read; (read = is.read(buffer)) > 0; ) {
+				crc.update(buffer, 0, read);
+			}
+		}
+
+		return crc.getValue();
+	}
+
+	private static class Entry {
+
+		private final String name;
+		private final long size;
+		private final long modified;
+		private final long crc;
+
+		private Version version;
+		private Version parent;
+
+		Entry(String name, long size, long modified, long crc) {
+			this.name = name;
+			this.size = size;
+			this.modified = modified;
+			this.crc = crc;
+		}
+	}
+}
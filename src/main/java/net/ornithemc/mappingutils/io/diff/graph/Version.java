@@ -1,6 +1,8 @@
 package net.ornithemc.mappingutils.io.diff.graph;
 
 import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Collections;
@@ -13,10 +15,20 @@ import net.ornithemc.mappingutils.io.Format;
 import net.ornithemc.mappingutils.io.Mappings;
 import net.ornithemc.mappingutils.io.diff.MappingsDiff;
 
+/**
+ * A version in a version graph, with either the root mappings or the
+ * diffs to each of its parents. These are loaded on first access, and
+ * may be evicted again by the {@link DiffCache} of the graph.
+ * <br>
+ * Versions are not thread-safe. Their mappings and diffs can be worked
+ * on in parallel once they are loaded, but loading them and marking a
+ * version dirty must happen on one thread.
+ */
 public class Version {
 
 	private final String version;
 	private final Format format;
+	private final DiffCache cache;
 
 	final Set<Version> parents;
 	final Set<Version> children;
@@ -27,17 +39,26 @@ public class Version {
 	private final Map<Version, MappingsDiff> diffs;
 	final Map<Version, Path> paths;
 
+	// mappings and diffs evicted from the cache
+	private WeakReference<Mappings> evictedMappings;
+	private final Map<Version, WeakReference<MappingsDiff>> evictedDiffs;
+
 	private boolean dirty;
+	// changes whenever the mappings or diffs may have changed
+	private int revision;
 
-	Version(String version, Format format) {
+	Version(String version, Format format, DiffCache cache) {
 		this.version = version;
 		this.format = format;
+		this.cache = cache;
 
 		this.parents = new LinkedHashSet<>();
 		this.children = new LinkedHashSet<>();
 
 		this.diffs = new HashMap<>();
 		this.paths = new HashMap<>();
+
+		this.evictedDiffs = new HashMap<>();
 	}
 
 	@Override
@@ -87,7 +108,18 @@ public class Version {
 			throw new UnsupportedOperationException("only a root has mappings!");
 		}
 		if (mappings == null) {
-			mappings = format.readMappings(paths.get(this), true);
+			if (evictedMappings != null) {
+				mappings = evictedMappings.get();
+				evictedMappings = null;
+			}
+			if (mappings == null) {
+				mappings = format.readMappings(paths.get(this), true);
+			}
+			if (cache != null) {
+				cache.loaded(this, this, Files.size(paths.get(this)));
+			}
+		} else if (cache != null) {
+			cache.accessed(this, this);
 		}
 
 		return mappings;
@@ -101,18 +133,71 @@ public class Version {
 		MappingsDiff diff = diffs.get(parent);
 
 		if (diff == null) {
-			diffs.put(parent, diff = format.readDiff(paths.get(parent), true));
+			WeakReference<MappingsDiff> evicted = evictedDiffs.remove(parent);
+
+			if (evicted != null) {
+				diff = evicted.get();
+			}
+			if (diff == null) {
+				diff = format.readDiff(paths.get(parent), true);
+			}
+
+			diffs.put(parent, diff);
+
+			if (cache != null) {
+				cache.loaded(this, parent, Files.size(paths.get(parent)));
+			}
+		} else if (cache != null) {
+			cache.accessed(this, parent);
 		}
 
 		return diff;
 	}
 
+	boolean isLoaded(Version parent) {
+		return (parent == this) ? mappings != null : diffs.containsKey(parent);
+	}
+
+	void prefetched(Mappings mappings) throws IOException {
+		this.mappings = mappings;
+		this.evictedMappings = null;
+
+		if (cache != null) {
+			cache.loaded(this, this, Files.size(paths.get(this)));
+		}
+	}
+
+	void prefetched(Version parent, MappingsDiff diff) throws IOException {
+		diffs.put(parent, diff);
+		evictedDiffs.remove(parent);
+
+		if (cache != null) {
+			cache.loaded(this, parent, Files.size(paths.get(parent)));
+		}
+	}
+
+	void evict(Version parent) {
+		if (parent == this) {
+			if (mappings != null) {
+				evictedMappings = new WeakReference<>(mappings);
+				mappings = null;
+			}
+		} else {
+			MappingsDiff diff = diffs.remove(parent);
+
+			if (diff != null) {
+				evictedDiffs.put(parent, new WeakReference<>(diff));
+			}
+		}
+	}
+
 	public void writeMappings() throws IOException {
 		if (!isRoot()) {
 			throw new UnsupportedOperationException("only a root has mappings!");
 		}
 		if (mappings != null && dirty) {
 			format.writeMappings(paths.get(this), mappings);
+			written();
 		}
 	}
 
@@ -127,14 +212,51 @@ public class Version {
 
 				format.writeDiff(path, diff);
 			}
+
+			written();
 		}
 	}
 
+	void written() {
+		revision++;
+	}
+
 	public boolean isDirty() {
 		return dirty;
 	}
 
+	/**
+	 * A number that changes every time this version is marked dirty or
+	 * written, so that anything derived from its mappings or diffs can
+	 * tell when it is out of date.
+	 */
+	public int getRevision() {
+		return revision;
+	}
+
 	public void markDirty() {
 		dirty = true;
+		revision++;
+
+		// evicted mappings and diffs could still have been modified
+		// by whoever held on to them, and must be written too
+		if (evictedMappings != null) {
+			Mappings evicted = evictedMappings.get();
+
+			if (evicted != null) {
+				mappings = evicted;
+			}
+
+			evictedMappings = null;
+		}
+		for (Map.Entry<Version, WeakReference<MappingsDiff>> entry : evictedDiffs.entrySet()) {
+			MappingsDiff evicted = entry.getValue().get();
+
+			if (evicted != null) {
+				diffs.put(entry.getKey(), evicted);
+			}
+		}
+
+		evictedDiffs.clear();
 	}
 }
@@ -1,7 +1,11 @@
 package net.ornithemc.mappingutils.io.diff.graph;
 
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
@@ -11,25 +15,35 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import net.ornithemc.mappingutils.FileUtils;
+import net.ornithemc.mappingutils.Pair;
 import net.ornithemc.mappingutils.io.Format;
+import net.ornithemc.mappingutils.io.Mappings;
 import net.ornithemc.mappingutils.io.diff.MappingsDiff;
 
 public class VersionGraph {
 
 	private final Format format;
+	private final DiffCache cache;
 	private final Map<String, Version> versions;
 
 	private Version root;
 
-	private VersionGraph(Format format) {
+	private VersionGraph(Format format, DiffCache cache) {
 		this.format = format;
+		this.cache = cache;
 		this.versions = new HashMap<>();
 	}
 
@@ -37,6 +51,14 @@ public class VersionGraph {
 		return format;
 	}
 
+	/**
+	 * The cache that bounds the loaded mappings and diffs of this
+	 * graph, or {@code null} if they are kept in memory once loaded.
+	 */
+	public DiffCache getDiffCache() {
+		return cache;
+	}
+
 	public Version root() {
 		return root;
 	}
@@ -177,16 +199,251 @@ public class VersionGraph {
 		return diffs;
 	}
 
-	public void write() throws IOException {
+	/**
+	 * Write the mappings and diffs of the dirty versions in this graph on
+	 * the calling thread. See {@link #write(int)}.
+	 */
+	public WriteReport write() throws IOException {
+		return write(1);
+	}
+
+	/**
+	 * Write the mappings and diffs of the dirty versions in this graph,
+	 * serializing them on the given number of threads. Each file is first
+	 * written next to the one it replaces, and only once all of them have
+	 * been written are they moved into place, so that an error while
+	 * writing leaves the graph on disk as it was.
+	 * <br>
+	 * Only the replacement of each file on its own is atomic, and only if
+	 * the file system supports atomic moves. The files are moved one at a
+	 * time, so if moving one of them fails, or the process stops while
+	 * they are being moved, the graph on disk is left with some files
+	 * replaced and others not.
+	 */
+	public WriteReport write(int threads) throws IOException {
+		checkThreads(threads);
+
+		List<Pair<Version, Version>> writes = new ArrayList<>();
+
 		for (Version v : versions.values()) {
-			if (v.isRoot()) {
-				v.writeMappings();
+			if (v.isDirty()) {
+				for (Version p : v.isRoot() ? Collections.singleton(v) : v.parents) {
+					if (v.isLoaded(p)) {
+						writes.add(new Pair<>(v, p));
+					}
+				}
+			}
+		}
+
+		WriteReport report = new WriteReport();
+
+		if (writes.isEmpty()) {
+			return report;
+		}
+
+		List<Path> tmpPaths = new ArrayList<>(writes.size());
+		boolean written = false;
+
+		try {
+			if (threads == 1) {
+				for (Pair<Version, Version> entry : writes) {
+					Version v = entry.left;
+					Version p = entry.right;
+					Path path = v.paths.get(p);
+					Path tmpPath = path.resolveSibling(path.getFileName() + ".tmp");
+
+					tmpPaths.add(tmpPath);
+					report.add(write(v, p, path, tmpPath, v.isRoot() ? v.getMappings() : null, v.isRoot() ? null : v.getDiff(p)));
+				}
 			} else {
-				v.writeDiffs();
+				write(writes, threads, tmpPaths, report);
+			}
+
+			written = true;
+		} finally {
+			if (!written) {
+				for (Path tmpPath : tmpPaths) {
+					Files.deleteIfExists(tmpPath);
+				}
+			}
+		}
+
+		for (int i = 0; i < tmpPaths.size(); i++) {
+			Path tmpPath = tmpPaths.get(i);
+			Path path = report.getEntries().get(i).getPath();
+
+			try {
+				Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING);
+			}
+
+			report.getEntries().get(i).getVersion().written();
+		}
+
+		return report;
+	}
+
+	private void write(List<Pair<Version, Version>> writes, int threads, List<Path> tmpPaths, WriteReport report) throws IOException {
+		List<Future<WriteReport.Entry>> results = new ArrayList<>(writes.size());
+		boolean written = false;
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		try {
+			for (Pair<Version, Version> entry : writes) {
+				Version v = entry.left;
+				Version p = entry.right;
+				Path path = v.paths.get(p);
+				Path tmpPath = path.resolveSibling(path.getFileName() + ".tmp");
+
+				// versions and the cache are not thread-safe,
+				// so the mappings and diffs are fetched here
+				Mappings mappings = v.isRoot() ? v.getMappings() : null;
+				MappingsDiff diff = v.isRoot() ? null : v.getDiff(p);
+
+				tmpPaths.add(tmpPath);
+				results.add(executor.submit(() -> write(v, p, path, tmpPath, mappings, diff)));
+			}
+
+			for (int i = 0; i < results.size(); i++) {
+				try {
+					report.add(results.get(i).get());
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+
+					if (cause instanceof IOException) {
+						throw (IOException)cause;
+					}
+					if (cause instanceof RuntimeException) {
+						throw (RuntimeException)cause;
+					}
+
+					throw new IOException("error writing " + tmpPaths.get(i), cause);
+				}
+			}
+
+			written = true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted while writing version graph", e);
+		} finally {
+			executor.shutdownNow();
+
+			// the temporary files are deleted after this,
+			// so wait for any writes that are still going
+			if (!written) {
+				try {
+					executor.awaitTermination(1, TimeUnit.MINUTES);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
 			}
 		}
 	}
 
+	private WriteReport.Entry write(Version v, Version p, Path path, Path tmpPath, Mappings mappings, MappingsDiff diff) throws IOException {
+		long start = System.nanoTime();
+
+		if (mappings != null) {
+			format.writeMappings(tmpPath, mappings);
+		} else {
+			format.writeDiff(tmpPath, diff);
+		}
+
+		long time = System.nanoTime() - start;
+
+		return new WriteReport.Entry(v, v.isRoot() ? null : p, path, Files.size(tmpPath), time);
+	}
+
+	/**
+	 * Read the mappings and diffs of the versions in this graph, in the
+	 * order the graph is walked, in parallel. If this graph has a diff
+	 * cache, only as many are read as fit in its budget.
+	 */
+	private VersionGraph prefetch(int threads) throws IOException {
+		List<Pair<Version, Version>> prefetch = new ArrayList<>();
+
+		walk(v -> {
+			for (Version p : v.isRoot() ? Collections.singleton(v) : v.parents) {
+				if (!v.isLoaded(p)) {
+					prefetch.add(new Pair<>(v, p));
+				}
+			}
+		}, p -> { });
+
+		if (cache != null) {
+			long size = 0;
+
+			for (int i = 0; i < prefetch.size(); i++) {
+				Pair<Version, Version> entry = prefetch.get(i);
+				size += Files.size(entry.left.paths.get(entry.right));
+
+				if (size > cache.getBudget()) {
+					prefetch.subList(i, prefetch.size()).clear();
+				}
+			}
+		}
+
+		if (prefetch.isEmpty()) {
+			return this;
+		}
+
+		List<Future<Object>> results = new ArrayList<>(prefetch.size());
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		try {
+			for (Pair<Version, Version> entry : prefetch) {
+				Version v = entry.left;
+				Version p = entry.right;
+				Path path = v.paths.get(p);
+
+				results.add(executor.submit(() -> {
+					return v.isRoot()
+						? format.readMappings(path, true)
+						: format.readDiff(path, true);
+				}));
+			}
+
+			// versions and the cache are not thread-safe,
+			// so the results are handed to them from here
+			for (int i = 0; i < results.size(); i++) {
+				Version v = prefetch.get(i).left;
+				Version p = prefetch.get(i).right;
+				Object result;
+
+				try {
+					result = results.get(i).get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+
+					if (cause instanceof IOException) {
+						throw (IOException)cause;
+					}
+					if (cause instanceof RuntimeException) {
+						throw (RuntimeException)cause;
+					}
+
+					throw new IOException("error reading " + v.paths.get(p), cause);
+				}
+
+				if (v.isRoot()) {
+					v.prefetched((Mappings)result);
+				} else {
+					v.prefetched(p, (MappingsDiff)result);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted while reading version graph", e);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		return this;
+	}
+
 	private VersionGraph resolve(Path dir) throws IOException {
 		iterateVersions(dir, (parent, version, path) -> {
 			if (parent == null) {
@@ -258,11 +515,46 @@ public class VersionGraph {
 	}
 
 	private Version addVersion(String version) {
-		return versions.computeIfAbsent(version, key -> new Version(version, format));
+		return versions.computeIfAbsent(version, key -> new Version(version, format, cache));
 	}
 
 	public static VersionGraph of(Format format, Path path) throws IOException {
-		return new VersionGraph(format).resolve(path);
+		return new VersionGraph(format, null).resolve(path);
+	}
+
+	/**
+	 * Resolve the version graph in the given directory, and read all its
+	 * mappings and diffs up front, on the given number of threads.
+	 */
+	public static VersionGraph withThreads(Format format, Path path, int threads) throws IOException {
+		checkThreads(threads);
+		return new VersionGraph(format, null).resolve(path).prefetch(threads);
+	}
+
+	/**
+	 * Resolve the version graph in the given directory, keeping at most
+	 * roughly the given number of bytes worth of mappings and diffs in
+	 * memory. See {@link DiffCache} for how the budget is applied.
+	 */
+	public static VersionGraph withBudget(Format format, Path path, long budget) throws IOException {
+		return new VersionGraph(format, new DiffCache(budget)).resolve(path);
+	}
+
+	/**
+	 * Resolve the version graph in the given directory, keeping at most
+	 * roughly the given number of bytes worth of mappings and diffs in
+	 * memory, and read as many of its mappings and diffs as fit in that
+	 * budget up front, on the given number of threads.
+	 */
+	public static VersionGraph withBudget(Format format, Path path, long budget, int threads) throws IOException {
+		checkThreads(threads);
+		return new VersionGraph(format, new DiffCache(budget)).resolve(path).prefetch(threads);
+	}
+
+	private static void checkThreads(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("threads must be positive: " + threads);
+		}
 	}
 
 	@FunctionalInterface
@@ -0,0 +1,97 @@
+package net.ornithemc.mappingutils.io.diff.graph;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A report of the files that were written when writing a version graph,
+ * with the number of bytes written and the time it took for each.
+ */
+public class WriteReport {
+
+	private final List<Entry> entries;
+
+	WriteReport() {
+		this.entries = new ArrayList<>();
+	}
+
+	void add(Entry entry) {
+		entries.add(entry);
+	}
+
+	public List<Entry> getEntries() {
+		return Collections.unmodifiableList(entries);
+	}
+
+	public long getBytes() {
+		long bytes = 0;
+
+		for (Entry entry : entries) {
+			bytes += entry.bytes;
+		}
+
+		return bytes;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+
+		for (Entry entry : entries) {
+			sb.append(entry).append(System.lineSeparator());
+		}
+
+		return sb.toString();
+	}
+
+	public static class Entry {
+
+		private final Version version;
+		private final Version parent;
+		private final Path path;
+		private final long bytes;
+		private final long nanos;
+
+		Entry(Version version, Version parent, Path path, long bytes, long nanos) {
+			this.version = version;
+			this.parent = parent;
+			this.path = path;
+			this.bytes = bytes;
+			this.nanos = nanos;
+		}
+
+		public Version getVersion() {
+			return version;
+		}
+
+		/**
+		 * The parent of the version the diff is from, or {@code null}
+		 * if this entry is for the mappings of the root version.
+		 */
+		public Version getParent() {
+			return parent;
+		}
+
+		public Path getPath() {
+			return path;
+		}
+
+		public long getBytes() {
+			return bytes;
+		}
+
+		/**
+		 * The time it took to write the file, in nanoseconds.
+		 */
+		public long getTime() {
+			return nanos;
+		}
+
+		@Override
+		public String toString() {
+			return path.getFileName() + ": " + bytes + " bytes in " + (nanos / 1000000) + "ms";
+		}
+	}
+}
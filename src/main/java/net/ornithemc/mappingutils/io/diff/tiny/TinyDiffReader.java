@@ -1,21 +1,19 @@
 package net.ornithemc.mappingutils.io.diff.tiny;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 
 import net.ornithemc.mappingutils.io.diff.MappingsDiff;
+import net.ornithemc.mappingutils.io.tiny.TinyTokenizer;
 
 public abstract class TinyDiffReader {
 
-	protected static final String TAB = "\t";
-
-	protected final BufferedReader reader;
+	protected final TinyTokenizer tokenizer;
 	protected final MappingsDiff diff;
 
 	private Stage stage;
 
-	protected TinyDiffReader(BufferedReader reader, MappingsDiff diff) {
-		this.reader = reader;
+	protected TinyDiffReader(TinyTokenizer tokenizer, MappingsDiff diff) {
+		this.tokenizer = tokenizer;
 		this.diff = diff;
 	}
 
@@ -23,30 +21,30 @@ public abstract class TinyDiffReader {
 		stage = Stage.HEADER;
 
 		for (int lineNumber = 1; stage != null; lineNumber++) {
-			stage = parseLine(reader.readLine(), lineNumber);
+			stage = parseLine(lineNumber);
 		}
 
 		return diff;
 	}
 
-	private Stage parseLine(String line, int lineNumber) {
-		if (line == null) {
+	private Stage parseLine(int lineNumber) throws IOException {
+		if (!tokenizer.nextLine()) {
 			return null;
 		}
 
 		switch (stage) {
 		case HEADER:
-			return parseHeader(line, lineNumber);
+			return parseHeader(lineNumber);
 		case DIFFS:
-			return parseDiffs(line, lineNumber);
+			return parseDiffs(lineNumber);
 		default:
 			throw new IllegalStateException("cannot parse line while done with reading!");
 		}
 	}
 
-	protected abstract Stage parseHeader(String line, int lineNumber);
+	protected abstract Stage parseHeader(int lineNumber);
 
-	protected abstract Stage parseDiffs(String line, int lineNumber);
+	protected abstract Stage parseDiffs(int lineNumber);
 
 	protected enum Stage {
 		HEADER, DIFFS
@@ -1,18 +1,19 @@
 package net.ornithemc.mappingutils.io.diff.tiny.v1;
 
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.Path;
 
+import net.ornithemc.mappingutils.io.MappingFiles;
 import net.ornithemc.mappingutils.io.diff.MappingsDiff;
 import net.ornithemc.mappingutils.io.diff.MappingsDiff.ClassDiff;
 import net.ornithemc.mappingutils.io.diff.tiny.TinyDiffReader;
+import net.ornithemc.mappingutils.io.tiny.TinyTokenizer;
 
 public class TinyV1DiffReader extends TinyDiffReader {
 
 	public static MappingsDiff read(Path path, boolean cacheById) throws IOException {
-		try (BufferedReader reader = new BufferedReader(new FileReader(path.toFile()))) {
+		try (BufferedReader reader = MappingFiles.reader(path)) {
 			return read(reader, cacheById);
 		} catch (Exception e) {
 			throw new IOException("error reading " + path.toString(), e);
@@ -20,22 +21,20 @@ public class TinyV1DiffReader extends TinyDiffReader {
 	}
 
 	public static MappingsDiff read(BufferedReader reader, boolean cacheById) throws IOException {
-		return new TinyV1DiffReader(reader, cacheById).read();
+		return new TinyV1DiffReader(new TinyTokenizer(reader), cacheById).read();
 	}
 
-	private TinyV1DiffReader(BufferedReader reader, boolean cacheById) {
-		super(reader, new MappingsDiff(cacheById));
+	private TinyV1DiffReader(TinyTokenizer tokenizer, boolean cacheById) {
+		super(tokenizer, new MappingsDiff(cacheById));
 	}
 
 	@Override
-	protected Stage parseHeader(String line, int lineNumber) {
-		String[] args = line.split(TAB);
-
-		if (args.length != 1) {
-			throw new IllegalStateException("illegal number of arguments (" + args.length + ") for header - expected 1");
+	protected Stage parseHeader(int lineNumber) {
+		if (tokenizer.columnCount() != 1) {
+			throw new IllegalStateException("illegal number of arguments (" + tokenizer.columnCount() + ") for header - expected 1");
 		}
 
-		String version = args[0];
+		String version = tokenizer.column(0);
 
 		if (!TinyV1Format.VERSION.equals(version)) {
 			throw new IllegalStateException("cannot read tiny version " + version + " - expected " + TinyV1Format.VERSION);
@@ -45,9 +44,7 @@ public class TinyV1DiffReader extends TinyDiffReader {
 	}
 
 	@Override
-	protected Stage parseDiffs(String line, int lineNumber) {
-		String[] args = line.split(TAB);
-
+	protected Stage parseDiffs(int lineNumber) {
 		String cls;
 		ClassDiff c;
 
@@ -56,29 +53,29 @@ public class TinyV1DiffReader extends TinyDiffReader {
 		String dstB;
 		String desc;
 
-		switch (args[0]) {
+		switch (tokenizer.column(0)) {
 		case TinyV1Format.CLASS:
-			if (args.length < 2 || args.length > 4) {
-				throw new IllegalStateException("illegal number of arguments (" + args.length + ") for class diff on line " + lineNumber + " - expected 2-4");
+			if (tokenizer.columnCount() < 2 || tokenizer.columnCount() > 4) {
+				throw new IllegalStateException("illegal number of arguments (" + tokenizer.columnCount() + ") for class diff on line " + lineNumber + " - expected 2-4");
 			}
 
-			src = args[1];
-			dstA = (args.length < 3) ? "" : args[2];
-			dstB = (args.length < 4) ? "" : args[3];
+			src = tokenizer.column(1);
+			dstA = (tokenizer.columnCount() < 3) ? "" : tokenizer.column(2);
+			dstB = (tokenizer.columnCount() < 4) ? "" : tokenizer.column(3);
 
 			diff.addClass(src, dstA, dstB);
 
 			break;
 		case TinyV1Format.FIELD:
-			if (args.length < 4 || args.length > 6) {
-				throw new IllegalStateException("illegal number of arguments (" + args.length + ") for field diff on line " + lineNumber + " - expected 4-6");
+			if (tokenizer.columnCount() < 4 || tokenizer.columnCount() > 6) {
+				throw new IllegalStateException("illegal number of arguments (" + tokenizer.columnCount() + ") for field diff on line " + lineNumber + " - expected 4-6");
 			}
 
-			cls = args[1];
-			desc = args[2];
-			src = args[3];
-			dstA = (args.length < 5) ? "" : args[4];
-			dstB = (args.length < 6) ? "" : args[5];
+			cls = tokenizer.column(1);
+			desc = tokenizer.column(2);
+			src = tokenizer.column(3);
+			dstA = (tokenizer.columnCount() < 5) ? "" : tokenizer.column(4);
+			dstB = (tokenizer.columnCount() < 6) ? "" : tokenizer.column(5);
 
 			c = diff.getClass(cls);
 
@@ -90,15 +87,15 @@ public class TinyV1DiffReader extends TinyDiffReader {
 
 			break;
 		case TinyV1Format.METHOD:
-			if (args.length < 4 || args.length > 6) {
-				throw new IllegalStateException("illegal number of arguments (" + args.length + ") for field diff on line " + lineNumber + " - expected 4-6");
+			if (tokenizer.columnCount() < 4 || tokenizer.columnCount() > 6) {
+				throw new IllegalStateException("illegal number of arguments (" + tokenizer.columnCount() + ") for field diff on line " + lineNumber + " - expected 4-6");
 			}
 
-			cls = args[1];
-			desc = args[2];
-			src = args[3];
-			dstA = (args.length < 5) ? "" : args[4];
-			dstB = (args.length < 6) ? "" : args[5];
+			cls = tokenizer.column(1);
+			desc = tokenizer.column(2);
+			src = tokenizer.column(3);
+			dstA = (tokenizer.columnCount() < 5) ? "" : tokenizer.column(4);
+			dstB = (tokenizer.columnCount() < 6) ? "" : tokenizer.column(5);
 
 			c = diff.getClass(cls);
 
@@ -110,7 +107,7 @@ public class TinyV1DiffReader extends TinyDiffReader {
 
 			break;
 		default:
-			throw new IllegalStateException("unknown diff target " + args[0] + " on line " + lineNumber);
+			throw new IllegalStateException("unknown diff target " + tokenizer.column(0) + " on line " + lineNumber);
 		}
 
 		return Stage.DIFFS;
@@ -1,10 +1,10 @@
 package net.ornithemc.mappingutils.io.diff.tiny.v1;
 
 import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Path;
 
+import net.ornithemc.mappingutils.io.MappingFiles;
 import net.ornithemc.mappingutils.io.diff.DiffSide;
 import net.ornithemc.mappingutils.io.diff.MappingsDiff;
 import net.ornithemc.mappingutils.io.diff.MappingsDiff.ClassDiff;
@@ -15,7 +15,7 @@ import net.ornithemc.mappingutils.io.diff.tiny.TinyDiffWriter;
 public class TinyV1DiffWriter extends TinyDiffWriter {
 
 	public static void write(Path path, MappingsDiff diff) throws IOException {
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(path.toFile()))) {
+		try (BufferedWriter writer = MappingFiles.writer(path)) {
 			write(writer, diff);
 		} catch (Exception e) {
 			throw new IOException("error writing " + path.toString(), e);
@@ -26,6 +26,14 @@ public class TinyV1DiffWriter extends TinyDiffWriter {
 		new TinyV1DiffWriter(writer, diff).write();
 	}
 
+	/**
+	 * Write the given diff without a header, so that a diff can be written
+	 * in parts, one after the other.
+	 */
+	public static void append(BufferedWriter writer, MappingsDiff diff) throws IOException {
+		new TinyV1DiffWriter(writer, diff).writeDiffs();
+	}
+
 	private TinyV1DiffWriter(BufferedWriter writer, MappingsDiff diff) {
 		super(writer, diff);
 	}
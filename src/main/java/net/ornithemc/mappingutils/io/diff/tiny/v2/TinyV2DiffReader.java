@@ -1,11 +1,10 @@
 package net.ornithemc.mappingutils.io.diff.tiny.v2;
 
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.Path;
-import java.util.Arrays;
 
+import net.ornithemc.mappingutils.io.MappingFiles;
 import net.ornithemc.mappingutils.io.diff.DiffSide;
 import net.ornithemc.mappingutils.io.diff.MappingsDiff;
 import net.ornithemc.mappingutils.io.diff.MappingsDiff.ClassDiff;
@@ -14,11 +13,12 @@ import net.ornithemc.mappingutils.io.diff.MappingsDiff.JavadocDiff;
 import net.ornithemc.mappingutils.io.diff.MappingsDiff.MethodDiff;
 import net.ornithemc.mappingutils.io.diff.MappingsDiff.ParameterDiff;
 import net.ornithemc.mappingutils.io.diff.tiny.TinyDiffReader;
+import net.ornithemc.mappingutils.io.tiny.TinyTokenizer;
 
 public class TinyV2DiffReader extends TinyDiffReader {
 
 	public static MappingsDiff read(Path path, boolean cacheById) throws IOException {
-		try (BufferedReader reader = new BufferedReader(new FileReader(path.toFile()))) {
+		try (BufferedReader reader = MappingFiles.reader(path)) {
 			return read(reader, cacheById);
 		} catch (Exception e) {
 			throw new IOException("error reading " + path.toString(), e);
@@ -26,7 +26,7 @@ public class TinyV2DiffReader extends TinyDiffReader {
 	}
 
 	public static MappingsDiff read(BufferedReader reader, boolean cacheById) throws IOException {
-		return new TinyV2DiffReader(reader, cacheById).read();
+		return new TinyV2DiffReader(new TinyTokenizer(reader), cacheById).read();
 	}
 
 	private int indents;
@@ -37,21 +37,19 @@ public class TinyV2DiffReader extends TinyDiffReader {
 	private ParameterDiff p;
 	private JavadocDiff j;
 
-	private TinyV2DiffReader(BufferedReader reader, boolean cacheById) {
-		super(reader, new MappingsDiff(cacheById));
+	private TinyV2DiffReader(TinyTokenizer tokenizer, boolean cacheById) {
+		super(tokenizer, new MappingsDiff(cacheById));
 	}
 
 	@Override
-	protected Stage parseHeader(String line, int lineNumber) {
-		String[] args = line.split(TAB);
-
-		if (args.length != 3) {
-			throw new IllegalStateException("illegal number of arguments (" + args.length + ") for header - expected 3");
+	protected Stage parseHeader(int lineNumber) {
+		if (tokenizer.columnCount() != 3) {
+			throw new IllegalStateException("illegal number of arguments (" + tokenizer.columnCount() + ") for header - expected 3");
 		}
 
-		String format = args[0];
-		String version = args[1];
-		String minorVersion = args[2];
+		String format = tokenizer.column(0);
+		String version = tokenizer.column(1);
+		String minorVersion = tokenizer.column(2);
 
 		if (!TinyV2Format.FORMAT.equals(format)) {
 			throw new IllegalStateException("cannot read mapping format " + format + " - expected " + TinyV2Format.FORMAT);
@@ -67,23 +65,17 @@ public class TinyV2DiffReader extends TinyDiffReader {
 	}
 
 	@Override
-	protected Stage parseDiffs(String line, int lineNumber) {
-		String[] args = line.split(TAB);
-
-		for (indents = 0; indents < args.length; indents++) {
-			if (!args[indents].isEmpty()) {
-				break;
-			}
-		}
+	protected Stage parseDiffs(int lineNumber) {
+		indents = tokenizer.indents();
 
-		int ac = args.length - indents;
+		int ac = tokenizer.columnCount() - indents;
 
 		String src;
 		String dstA;
 		String dstB;
 		String desc;
 
-		switch (args[indents]) {
+		switch (tokenizer.column(indents)) {
 		case TinyV2Format.COMMENT:
 //		case TinyV2Formats.CLASS: // classes and comments use the same identifier
 			// first check if this line is a comment
@@ -97,8 +89,8 @@ public class TinyV2DiffReader extends TinyDiffReader {
 					throw new IllegalStateException("cannot read class javadocs on line " + lineNumber + " - not in a class?");
 				}
 
-				dstA = args[1 + indents];
-				dstB = (ac == 2) ? "" : args[2 + indents];
+				dstA = tokenizer.column(1 + indents);
+				dstB = (ac == 2) ? "" : tokenizer.column(2 + indents);
 
 				j = c.getJavadoc();
 
@@ -115,8 +107,8 @@ public class TinyV2DiffReader extends TinyDiffReader {
 					throw new IllegalStateException("cannot read field/method javadocs on line " + lineNumber + " - not in a field or method?");
 				}
 
-				dstA = args[1 + indents];
-				dstB = (ac == 2) ? "" : args[2 + indents];
+				dstA = tokenizer.column(1 + indents);
+				dstB = (ac == 2) ? "" : tokenizer.column(2 + indents);
 
 				j = (f == null ? m : f).getJavadoc();
 
@@ -133,8 +125,8 @@ public class TinyV2DiffReader extends TinyDiffReader {
 					throw new IllegalStateException("cannot read parameter javadocs on line " + lineNumber + " - not in a parameter?");
 				}
 
-				dstA = args[1 + indents];
-				dstB = (ac == 2) ? "" : args[2 + indents];
+				dstA = tokenizer.column(1 + indents);
+				dstB = (ac == 2) ? "" : tokenizer.column(2 + indents);
 
 				j = p.getJavadoc();
 
@@ -152,9 +144,9 @@ public class TinyV2DiffReader extends TinyDiffReader {
 				throw new IllegalStateException("illegal number of arguments (" + ac + ") for class mapping on line " + lineNumber + " - expected 2-4");
 			}
 
-			src = args[1 + indents];
-			dstA = (ac < 3) ? "" : args[2 + indents];
-			dstB = (ac < 4) ? "" : args[3 + indents];
+			src = tokenizer.column(1 + indents);
+			dstA = (ac < 3) ? "" : tokenizer.column(2 + indents);
+			dstB = (ac < 4) ? "" : tokenizer.column(3 + indents);
 
 			c = diff.addClass(src, dstA, dstB);
 			f = null;
@@ -173,10 +165,10 @@ public class TinyV2DiffReader extends TinyDiffReader {
 				throw new IllegalStateException("cannot read field mapping on line " + lineNumber + " - not in a class?");
 			}
 
-			desc = args[1 + indents];
-			src = args[2 + indents];
-			dstA = (ac < 4) ? "" : args[3 + indents];
-			dstB = (ac < 5) ? "" : args[4 + indents];
+			desc = tokenizer.column(1 + indents);
+			src = tokenizer.column(2 + indents);
+			dstA = (ac < 4) ? "" : tokenizer.column(3 + indents);
+			dstB = (ac < 5) ? "" : tokenizer.column(4 + indents);
 
 			f = c.addField(src, dstA, dstB, desc);
 			m = null;
@@ -194,10 +186,10 @@ public class TinyV2DiffReader extends TinyDiffReader {
 				throw new IllegalStateException("cannot read method mapping on line " + lineNumber + " - not in a class?");
 			}
 
-			desc = args[1 + indents];
-			src = args[2 + indents];
-			dstA = (ac < 4) ? "" : args[3 + indents];
-			dstB = (ac < 5) ? "" : args[4 + indents];
+			desc = tokenizer.column(1 + indents);
+			src = tokenizer.column(2 + indents);
+			dstA = (ac < 4) ? "" : tokenizer.column(3 + indents);
+			dstB = (ac < 5) ? "" : tokenizer.column(4 + indents);
 
 			m = c.addMethod(src, dstA, dstB, desc);
 			f = null;
@@ -215,12 +207,11 @@ public class TinyV2DiffReader extends TinyDiffReader {
 				throw new IllegalStateException("cannot read paremter mapping on line " + lineNumber + " - not in a method?");
 			}
 
-			String rawIndex = args[1 + indents];
-			src = args[2 + indents]; // we could ignore this argument
-			dstA = (ac < 4) ? "" : args[3 + indents];
-			dstB = (ac < 5) ? "" : args[4 + indents];
+			src = tokenizer.column(2 + indents); // we could ignore this argument
+			dstA = (ac < 4) ? "" : tokenizer.column(3 + indents);
+			dstB = (ac < 5) ? "" : tokenizer.column(4 + indents);
 
-			int index = Integer.parseInt(rawIndex);
+			int index = tokenizer.columnAsInt(1 + indents);
 
 			if (index < 0) {
 				throw new IllegalStateException("illegal parameter index " + index + " on line " + lineNumber + " - cannot be negative!");
@@ -231,7 +222,7 @@ public class TinyV2DiffReader extends TinyDiffReader {
 
 			break;
 		default:
-			throw new IllegalStateException("unknown mapping target " + args[indents] + " on line " + lineNumber + " - " + Arrays.toString(args));
+			throw new IllegalStateException("unknown mapping target " + tokenizer.column(indents) + " on line " + lineNumber + " - " + tokenizer.line());
 		}
 
 		return Stage.DIFFS;
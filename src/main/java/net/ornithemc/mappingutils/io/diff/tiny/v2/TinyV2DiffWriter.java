@@ -1,10 +1,10 @@
 package net.ornithemc.mappingutils.io.diff.tiny.v2;
 
 import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Path;
 
+import net.ornithemc.mappingutils.io.MappingFiles;
 import net.ornithemc.mappingutils.io.diff.DiffSide;
 import net.ornithemc.mappingutils.io.diff.MappingsDiff;
 import net.ornithemc.mappingutils.io.diff.MappingsDiff.ClassDiff;
@@ -18,7 +18,7 @@ import net.ornithemc.mappingutils.io.diff.tiny.TinyDiffWriter;
 public class TinyV2DiffWriter extends TinyDiffWriter {
 
 	public static void write(Path path, MappingsDiff diff) throws IOException {
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(path.toFile()))) {
+		try (BufferedWriter writer = MappingFiles.writer(path)) {
 			write(writer, diff);
 		} catch (Exception e) {
 			throw new IOException("error writing " + path.toString(), e);
@@ -29,6 +29,14 @@ public class TinyV2DiffWriter extends TinyDiffWriter {
 		new TinyV2DiffWriter(writer, diff).write();
 	}
 
+	/**
+	 * Write the given diff without a header, so that a diff can be written
+	 * in parts, one after the other.
+	 */
+	public static void append(BufferedWriter writer, MappingsDiff diff) throws IOException {
+		new TinyV2DiffWriter(writer, diff).writeDiffs();
+	}
+
 	private int indents;
 
 	private TinyV2DiffWriter(BufferedWriter writer, MappingsDiff diff) {
@@ -3,16 +3,41 @@ package net.ornithemc.mappingutils.io.enigma.dir;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import net.ornithemc.mappingutils.io.Format;
+import net.ornithemc.mappingutils.io.MappingNamespace;
 import net.ornithemc.mappingutils.io.Mappings;
+import net.ornithemc.mappingutils.io.Mappings.ClassMapping;
 import net.ornithemc.mappingutils.io.enigma.file.EnigmaFileReader;
 
 public class EnigmaDirReader {
 
 	public static Mappings read(Path dir, boolean cacheById) throws IOException {
-		return new EnigmaDirReader(dir, new Mappings(cacheById)).read();
+		return read(dir, new Mappings(cacheById));
+	}
+
+	public static Mappings read(Path dir, Mappings mappings) throws IOException {
+		return new EnigmaDirReader(dir, mappings).read();
+	}
+
+	/**
+	 * Read the mapping files in the given directory on the given number of
+	 * threads. The result is identical to that of the sequential reader.
+	 */
+	public static Mappings read(Path dir, boolean cacheById, int threads) throws IOException {
+		return read(dir, new Mappings(cacheById), threads);
+	}
+
+	public static Mappings read(Path dir, Mappings mappings, int threads) throws IOException {
+		return new EnigmaDirReader(dir, mappings).read(threads);
 	}
 
 	private final Path dir;
@@ -24,17 +49,77 @@ public class EnigmaDirReader {
 	}
 
 	public Mappings read() throws IOException {
-		Iterator<Path> it = Files.walk(dir).
-			filter(p -> Files.isRegularFile(p)).
-			filter(p -> p.toString().endsWith(Format.ENIGMA_FILE.mappingsExtension())).
-			iterator();
+		for (Path file : findFiles()) {
+			EnigmaFileReader.read(file, mappings);
+		}
+
+		mappings.sort();
+		mappings.trimToSize();
+
+		return mappings;
+	}
 
-		while (it.hasNext()) {
-			EnigmaFileReader.read(it.next(), mappings);
+	public Mappings read(int threads) throws IOException {
+		if (threads <= 1) {
+			return read();
+		}
+
+		List<Path> files = findFiles();
+		List<Future<Mappings>> results = new ArrayList<>(files.size());
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		try {
+			boolean cacheById = mappings.isCachedById();
+
+			for (Path file : files) {
+				results.add(executor.submit(() -> {
+					// share the string pool so the storage of the
+					// parsed class mappings matches that of the root
+					Mappings fileMappings = new Mappings(cacheById, MappingNamespace.NONE, MappingNamespace.NONE, mappings.getStringPool());
+					return EnigmaFileReader.read(file, fileMappings);
+				}));
+			}
+
+			// merge the class mappings in the same order as the
+			// sequential reader would add them
+			for (int i = 0; i < files.size(); i++) {
+				Mappings fileMappings;
+
+				try {
+					fileMappings = results.get(i).get();
+				} catch (ExecutionException e) {
+					// a file may depend on classes from other files, for
+					// example if it contains an inner class mapping but
+					// not its outer class; read those in order instead,
+					// which also reproduces any genuine errors
+					EnigmaFileReader.read(files.get(i), mappings);
+					continue;
+				}
+
+				for (ClassMapping c : fileMappings.getTopLevelClasses()) {
+					mappings.addClass(c);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted while reading " + dir.toString(), e);
+		} finally {
+			executor.shutdownNow();
 		}
 
 		mappings.sort();
+		mappings.trimToSize();
 
 		return mappings;
 	}
+
+	private List<Path> findFiles() throws IOException {
+		try (Stream<Path> files = Files.walk(dir)) {
+			return files.
+				filter(p -> Files.isRegularFile(p)).
+				filter(p -> p.toString().endsWith(Format.ENIGMA_FILE.mappingsExtension())).
+				collect(Collectors.toList());
+		}
+	}
 }
@@ -1,8 +1,16 @@
 package net.ornithemc.mappingutils.io.enigma.dir;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import net.ornithemc.mappingutils.FileUtils;
 import net.ornithemc.mappingutils.io.Format;
@@ -16,6 +24,15 @@ public class EnigmaDirWriter {
 		new EnigmaDirWriter(dir, mappings).write();
 	}
 
+	/**
+	 * Write the mappings to the given directory, but only touch the files
+	 * of top-level classes whose contents changed, and only delete the files
+	 * of top-level classes that no longer exist. Other files are left alone.
+	 */
+	public static Changes writeIncremental(Path dir, Mappings mappings) throws IOException {
+		return new EnigmaDirWriter(dir, mappings).writeIncremental();
+	}
+
 	private final Path dir;
 	private final Mappings mappings;
 
@@ -30,13 +47,122 @@ public class EnigmaDirWriter {
 		FileUtils.delete(dir.toFile());
 
 		for (ClassMapping cm : mappings.getTopLevelClasses()) {
-			String path = cm.get().isEmpty() ? cm.src() : cm.getComplete();
-			Path cp = dir.resolve(path + Format.ENIGMA_FILE.mappingsExtension());
+			Path cp = getPath(cm);
 
 			Files.createDirectories(cp);
 			Files.deleteIfExists(cp);
 
-			EnigmaFileWriter.write(cp, cm);
+			Files.write(cp, serialize(cm));
+		}
+	}
+
+	public Changes writeIncremental() throws IOException {
+		Set<Path> orphans = findFiles();
+		Changes changes = new Changes();
+
+		for (ClassMapping cm : mappings.getTopLevelClasses()) {
+			Path cp = getPath(cm);
+			byte[] content = serialize(cm);
+
+			orphans.remove(cp);
+
+			if (Files.isRegularFile(cp) && Files.size(cp) == content.length && Arrays.equals(Files.readAllBytes(cp), content)) {
+				changes.unchanged++;
+			} else {
+				Files.createDirectories(cp.getParent());
+				Files.write(cp, content);
+
+				changes.written++;
+			}
+		}
+
+		for (Path orphan : orphans) {
+			Files.delete(orphan);
+			deleteEmptyParents(orphan);
+
+			changes.deleted++;
+		}
+
+		return changes;
+	}
+
+	private Path getPath(ClassMapping cm) {
+		String path = cm.get().isEmpty() ? cm.src() : cm.getComplete();
+		return dir.resolve(path + Format.ENIGMA_FILE.mappingsExtension());
+	}
+
+	private Set<Path> findFiles() throws IOException {
+		if (!Files.isDirectory(dir)) {
+			return new LinkedHashSet<>();
+		}
+
+		try (Stream<Path> files = Files.walk(dir)) {
+			return files.
+				filter(p -> Files.isRegularFile(p)).
+				filter(p -> p.toString().endsWith(Format.ENIGMA_FILE.mappingsExtension())).
+				collect(Collectors.toCollection(LinkedHashSet::new));
+		}
+	}
+
+	private void deleteEmptyParents(Path file) throws IOException {
+		for (Path p = file.getParent(); p != null && !p.equals(dir); p = p.getParent()) {
+			try (Stream<Path> files = Files.list(p)) {
+				if (files.findAny().isPresent()) {
+					break;
+				}
+			}
+
+			Files.delete(p);
+		}
+	}
+
+	/**
+	 * Serialize the given class mapping as UTF-8. Both full and incremental
+	 * writes go through here, so that they produce the same files.
+	 */
+	private static byte[] serialize(ClassMapping cm) throws IOException {
+		StringWriter sw = new StringWriter();
+
+		try (BufferedWriter writer = new BufferedWriter(sw)) {
+			EnigmaFileWriter.write(writer, cm);
+		}
+
+		return sw.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	public static class Changes {
+
+		private int written;
+		private int unchanged;
+		private int deleted;
+
+		private Changes() {
+		}
+
+		/**
+		 * @return the number of class files that were created or rewritten
+		 */
+		public int written() {
+			return written;
+		}
+
+		/**
+		 * @return the number of class files that were left as they were
+		 */
+		public int unchanged() {
+			return unchanged;
+		}
+
+		/**
+		 * @return the number of class files that were deleted
+		 */
+		public int deleted() {
+			return deleted;
+		}
+
+		@Override
+		public String toString() {
+			return written + " written, " + unchanged + " unchanged, " + deleted + " deleted";
 		}
 	}
 }
@@ -1,12 +1,12 @@
 package net.ornithemc.mappingutils.io.enigma.file;
 
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Stack;
 
+import net.ornithemc.mappingutils.io.MappingFiles;
 import net.ornithemc.mappingutils.io.MappingTarget;
 import net.ornithemc.mappingutils.io.Mappings;
 import net.ornithemc.mappingutils.io.Mappings.ClassMapping;
@@ -16,7 +16,7 @@ import net.ornithemc.mappingutils.io.Mappings.MethodMapping;
 public class EnigmaFileReader {
 
 	public static Mappings read(Path path, boolean cacheById) throws IOException {
-		try (BufferedReader reader = new BufferedReader(new FileReader(path.toFile()))) {
+		try (BufferedReader reader = MappingFiles.reader(path)) {
 			return read(reader, cacheById);
 		} catch (Exception e) {
 			throw new IOException("error reading " + path.toString(), e);
@@ -28,7 +28,7 @@ public class EnigmaFileReader {
 	}
 
 	public static Mappings read(Path path, Mappings mappings) throws IOException {
-		try (BufferedReader reader = new BufferedReader(new FileReader(path.toFile()))) {
+		try (BufferedReader reader = MappingFiles.reader(path)) {
 			return read(reader, mappings);
 		} catch (Exception e) {
 			throw new IOException("error reading " + path.toString(), e);
@@ -1,10 +1,10 @@
 package net.ornithemc.mappingutils.io.enigma.file;
 
 import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Path;
 
+import net.ornithemc.mappingutils.io.MappingFiles;
 import net.ornithemc.mappingutils.io.MappingTarget;
 import net.ornithemc.mappingutils.io.Mappings;
 import net.ornithemc.mappingutils.io.Mappings.ClassMapping;
@@ -19,7 +19,7 @@ public class EnigmaFileWriter {
 	private static final String SPACE = " ";
 
 	public static void write(Path path, Mappings mappings) throws IOException {
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(path.toFile()))) {
+		try (BufferedWriter writer = MappingFiles.writer(path)) {
 			mappings.validate();
 
 			write(writer, mappings);
@@ -35,7 +35,7 @@ public class EnigmaFileWriter {
 	}
 
 	public static void write(Path path, ClassMapping cm) throws IOException {
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(path.toFile()))) {
+		try (BufferedWriter writer = MappingFiles.writer(path)) {
 			write(writer, cm);
 		} catch (Exception e) {
 			throw new IOException("error writing " + path.toString(), e);
@@ -1,52 +1,78 @@
 package net.ornithemc.mappingutils.io.tiny;
 
-import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.IOException;
 
-import net.ornithemc.mappingutils.io.Mappings;
+import net.ornithemc.mappingutils.io.MappingsVisitor;
 
-public abstract class TinyMappingsReader {
+public abstract class TinyMappingsReader implements Closeable {
 
-	protected static final String TAB = "\t";
-
-	protected final BufferedReader reader;
-	protected final Mappings mappings;
+	protected final TinyTokenizer tokenizer;
+	protected final MappingsVisitor visitor;
 
 	private Stage stage;
+	private int lineNumber;
+
+	protected TinyMappingsReader(TinyTokenizer tokenizer, MappingsVisitor visitor) {
+		this.tokenizer = tokenizer;
+		this.visitor = visitor;
 
-	protected TinyMappingsReader(BufferedReader reader, Mappings mappings) {
-		this.reader = reader;
-		this.mappings = mappings;
+		this.stage = Stage.HEADER;
 	}
 
-	public Mappings read() throws IOException {
-		stage = Stage.HEADER;
+	public void accept() throws IOException {
+		while (acceptLine()) {
+		}
+	}
 
-		for (int lineNumber = 1; stage != null; lineNumber++) {
-			stage = parseLine(reader.readLine(), lineNumber);
+	/**
+	 * Read a single line and pass its contents to the visitor, so that the
+	 * input can be read a little at a time. Once the end of the input is
+	 * reached, {@link MappingsVisitor#visitEnd()} is called.
+	 *
+	 * @return {@code false} if the end of the input was reached
+	 */
+	public boolean acceptLine() throws IOException {
+		if (stage == null) {
+			return false;
 		}
 
-		return mappings;
+		stage = parseLine(++lineNumber);
+
+		if (stage == null) {
+			visitor.visitEnd();
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Close the input of this reader.
+	 */
+	@Override
+	public void close() throws IOException {
+		tokenizer.close();
 	}
 
-	private Stage parseLine(String line, int lineNumber) {
-		if (line == null) {
+	private Stage parseLine(int lineNumber) throws IOException {
+		if (!tokenizer.nextLine()) {
 			return null;
 		}
 
 		switch (stage) {
 		case HEADER:
-			return parseHeader(line, lineNumber);
+			return parseHeader(lineNumber);
 		case MAPPINGS:
-			return parseMappings(line, lineNumber);
+			return parseMappings(lineNumber);
 		default:
 			throw new IllegalStateException("cannot parse line while done with reading!");
 		}
 	}
 
-	protected abstract Stage parseHeader(String line, int lineNumber);
+	protected abstract Stage parseHeader(int lineNumber);
 
-	protected abstract Stage parseMappings(String line, int lineNumber);
+	protected abstract Stage parseMappings(int lineNumber);
 
 	protected enum Stage {
 		HEADER, MAPPINGS
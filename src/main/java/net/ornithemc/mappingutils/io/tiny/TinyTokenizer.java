@@ -0,0 +1,306 @@
+package net.ornithemc.mappingutils.io.tiny;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+
+/**
+ * Splits tiny files into lines and tab separated columns in place.
+ * <p>
+ * Lines are read into a shared {@code char[]} buffer and only the column
+ * boundaries are recorded. Strings are only created when a column is asked
+ * for, and single character columns (which is what mapping targets are) are
+ * not allocated at all. Columns follow the semantics of
+ * {@code line.split("\t")}: leading empty columns are the indents and
+ * trailing empty columns are dropped.
+ */
+public class TinyTokenizer implements Closeable {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final String[] SINGLE_CHARS = new String[128];
+
+	static {
+		for (char chr = 0; chr < SINGLE_CHARS.length; chr++) {
+			SINGLE_CHARS[chr] = String.valueOf(chr).intern();
+		}
+	}
+
+	private final Reader reader;
+
+	private char[] buffer;
+	private int position;
+	private int limit;
+	// the last line ended in \r, a \n following it is part of that line terminator
+	private boolean skipLF;
+
+	private int lineStart;
+	private int lineEnd;
+
+	private int[] columnStarts;
+	private int[] columnEnds;
+	private int columnCount;
+	private int indents;
+
+	/**
+	 * Tokenize the contents of the given reader.
+	 */
+	public TinyTokenizer(Reader reader) {
+		this(reader, new char[BUFFER_SIZE], 0, 0);
+	}
+
+	/**
+	 * Tokenize the remaining contents of the given buffer. The buffer is not
+	 * copied if it is backed by an accessible array.
+	 */
+	public TinyTokenizer(CharBuffer buffer) {
+		this(null, buffer.hasArray() ? buffer.array() : buffer.toString().toCharArray(),
+			buffer.hasArray() ? buffer.arrayOffset() + buffer.position() : 0,
+			buffer.hasArray() ? buffer.arrayOffset() + buffer.limit() : buffer.remaining());
+	}
+
+	private TinyTokenizer(Reader reader, char[] buffer, int position, int limit) {
+		this.reader = reader;
+
+		this.buffer = buffer;
+		this.position = position;
+		this.limit = limit;
+
+		this.columnStarts = new int[8];
+		this.columnEnds = new int[8];
+	}
+
+	/**
+	 * Advance to the next line.
+	 *
+	 * @return {@code false} if the end of the input was reached
+	 */
+	public boolean nextLine() throws IOException {
+		if (skipLF) {
+			if (position < limit || fill()) {
+				if (buffer[position] == '\n') {
+					position++;
+				}
+			}
+
+			skipLF = false;
+		}
+
+		if (position >= limit && !fill()) {
+			return false;
+		}
+
+		int end = position;
+
+		while (true) {
+			while (end < limit && buffer[end] != '\n' && buffer[end] != '\r') {
+				end++;
+			}
+
+			if (end < limit) {
+				break;
+			}
+
+			int scanned = end - position;
+			boolean filled = fill();
+
+			// filling the buffer may have moved the current line
+			end = position + scanned;
+
+			if (!filled) {
+				break;
+			}
+		}
+
+		lineStart = position;
+		lineEnd = end;
+
+		if (end < limit) {
+			skipLF = (buffer[end] == '\r');
+			position = end + 1;
+		} else {
+			position = end;
+		}
+
+		tokenize();
+
+		return true;
+	}
+
+	/**
+	 * @return the number of leading empty columns in the current line
+	 */
+	public int indents() {
+		return indents;
+	}
+
+	/**
+	 * @return the number of columns in the current line, including indents
+	 */
+	public int columnCount() {
+		return columnCount;
+	}
+
+	public String column(int i) {
+		checkIndex(i);
+
+		int start = columnStarts[i];
+		int length = columnEnds[i] - start;
+
+		if (length == 0) {
+			return "";
+		}
+		if (length == 1 && buffer[start] < SINGLE_CHARS.length) {
+			return SINGLE_CHARS[buffer[start]];
+		}
+
+		return new String(buffer, start, length);
+	}
+
+	public boolean columnEquals(int i, String s) {
+		checkIndex(i);
+
+		int start = columnStarts[i];
+		int length = columnEnds[i] - start;
+
+		if (length != s.length()) {
+			return false;
+		}
+
+		for (int j = 0; j < length; j++) {
+			if (buffer[start + j] != s.charAt(j)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Parse the given column as a decimal integer, without creating a string
+	 * for it if possible.
+	 *
+	 * @throws NumberFormatException if the column is not a valid integer
+	 */
+	public int columnAsInt(int i) {
+		checkIndex(i);
+
+		int start = columnStarts[i];
+		int end = columnEnds[i];
+
+		// short enough that it cannot overflow
+		if (end > start && end - start < 10) {
+			int value = 0;
+
+			for (int j = start; j < end; j++) {
+				char chr = buffer[j];
+
+				if (chr < '0' || chr > '9') {
+					// let Integer deal with signs and errors
+					return Integer.parseInt(column(i));
+				}
+
+				value = 10 * value + (chr - '0');
+			}
+
+			return value;
+		}
+
+		return Integer.parseInt(column(i));
+	}
+
+	/**
+	 * @return the current line, for error messages
+	 */
+	public String line() {
+		return new String(buffer, lineStart, lineEnd - lineStart);
+	}
+
+	private void tokenize() {
+		columnCount = 0;
+
+		for (int start = lineStart, i = lineStart; ; i++) {
+			if (i == lineEnd || buffer[i] == '\t') {
+				if (columnCount == columnStarts.length) {
+					columnStarts = grow(columnStarts);
+					columnEnds = grow(columnEnds);
+				}
+
+				columnStarts[columnCount] = start;
+				columnEnds[columnCount] = i;
+				columnCount++;
+
+				start = i + 1;
+
+				if (i == lineEnd) {
+					break;
+				}
+			}
+		}
+
+		// an empty line is a single empty column, otherwise
+		// trailing empty columns are dropped, as with String.split
+		if (lineEnd > lineStart) {
+			while (columnCount > 0 && columnStarts[columnCount - 1] == columnEnds[columnCount - 1]) {
+				columnCount--;
+			}
+		}
+
+		for (indents = 0; indents < columnCount; indents++) {
+			if (columnStarts[indents] != columnEnds[indents]) {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Close the underlying reader, if there is one.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (reader != null) {
+			reader.close();
+		}
+	}
+
+	private boolean fill() throws IOException {
+		if (reader == null) {
+			return false;
+		}
+
+		// drop everything before the current line
+		if (position > 0) {
+			System.arraycopy(buffer, position, buffer, 0, limit - position);
+
+			limit -= position;
+			position = 0;
+		}
+		if (limit == buffer.length) {
+			char[] grown = new char[2 * buffer.length];
+			System.arraycopy(buffer, 0, grown, 0, limit);
+			buffer = grown;
+		}
+
+		int read = reader.read(buffer, limit, buffer.length - limit);
+
+		if (read <= 0) {
+			return false;
+		}
+
+		limit += read;
+
+		return true;
+	}
+
+	private void checkIndex(int i) {
+		if (i < 0 || i >= columnCount) {
+			throw new IndexOutOfBoundsException("column " + i + " out of bounds for line with " + columnCount + " columns");
+		}
+	}
+
+	private static int[] grow(int[] array) {
+		int[] grown = new int[2 * array.length];
+		System.arraycopy(array, 0, grown, 0, array.length);
+		return grown;
+	}
+}
@@ -1,119 +1,168 @@
 package net.ornithemc.mappingutils.io.tiny.v1;
 
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
 
+import net.ornithemc.mappingutils.io.MappingFiles;
+import net.ornithemc.mappingutils.io.MappingNamespace;
 import net.ornithemc.mappingutils.io.Mappings;
-import net.ornithemc.mappingutils.io.Mappings.ClassMapping;
+import net.ornithemc.mappingutils.io.MappingsBuilder;
+import net.ornithemc.mappingutils.io.MappingsVisitor;
 import net.ornithemc.mappingutils.io.tiny.TinyMappingsReader;
+import net.ornithemc.mappingutils.io.tiny.TinyTokenizer;
 
 public class TinyV1Reader extends TinyMappingsReader {
 
 	public static Mappings read(Path path, boolean cacheById) throws IOException {
-		try (BufferedReader reader = new BufferedReader(new FileReader(path.toFile()))) {
-			return read(reader, cacheById);
+		return read(path, new Mappings(cacheById));
+	}
+
+	public static Mappings read(BufferedReader reader, boolean cacheById) throws IOException {
+		return read(reader, new Mappings(cacheById));
+	}
+
+	public static Mappings read(Path path, Mappings mappings) throws IOException {
+		accept(path, new MappingsBuilder(mappings));
+		return mappings;
+	}
+
+	public static Mappings read(BufferedReader reader, Mappings mappings) throws IOException {
+		accept(reader, new MappingsBuilder(mappings));
+		return mappings;
+	}
+
+	public static void accept(Path path, MappingsVisitor visitor) throws IOException {
+		try (BufferedReader reader = MappingFiles.reader(path)) {
+			accept(reader, visitor);
 		} catch (Exception e) {
 			throw new IOException("error reading " + path.toString(), e);
 		}
 	}
 
-	public static Mappings read(BufferedReader reader, boolean cacheById) throws IOException {
-		return new TinyV1Reader(reader, cacheById).read();
+	public static void accept(BufferedReader reader, MappingsVisitor visitor) throws IOException {
+		new TinyV1Reader(new TinyTokenizer(reader), visitor).accept();
 	}
 
-	private TinyV1Reader(BufferedReader reader, boolean cacheById) {
-		super(reader, new Mappings(cacheById));
+	/**
+	 * Create a reader for the given file that can be driven a line at a time
+	 * through {@link TinyMappingsReader#acceptLine()}. The reader must be
+	 * closed once it is no longer needed.
+	 */
+	public static TinyMappingsReader reader(Path path, MappingsVisitor visitor) throws IOException {
+		return new TinyV1Reader(new TinyTokenizer(MappingFiles.reader(path)), visitor);
 	}
 
-	@Override
-	protected Stage parseHeader(String line, int lineNumber) {
-		String[] args = line.split(TAB);
+	// field and method mappings refer to their class by name
+	// so we need to keep track of the class mappings we have seen
+	private final Map<String, String> classes;
+
+	private String cls;
+	private boolean skipClass;
+
+	private TinyV1Reader(TinyTokenizer tokenizer, MappingsVisitor visitor) {
+		super(tokenizer, visitor);
 
-		if (args.length != 3) {
-			throw new IllegalStateException("illegal number of arguments (" + args.length + ") for header - expected 3");
+		this.classes = new HashMap<>();
+	}
+
+	@Override
+	protected Stage parseHeader(int lineNumber) {
+		if (tokenizer.columnCount() != 3) {
+			throw new IllegalStateException("illegal number of arguments (" + tokenizer.columnCount() + ") for header - expected 3");
 		}
 
-		String version = args[0];
-		String srcNamespace = args[1];
-		String dstNamespace = args[2];
+		String version = tokenizer.column(0);
+		String srcNamespace = tokenizer.column(1);
+		String dstNamespace = tokenizer.column(2);
 
 		if (!TinyV1Format.VERSION.equals(version)) {
 			throw new IllegalStateException("cannot read tiny version " + version + " - expected " + TinyV1Format.VERSION);
 		}
 
-		mappings.setSrcNamespace(srcNamespace);
-		mappings.setDstNamespace(dstNamespace);
+		visitor.visitHeader(new MappingNamespace(srcNamespace), new MappingNamespace(dstNamespace));
 
 		return Stage.MAPPINGS;
 	}
 
 	@Override
-	protected Stage parseMappings(String line, int lineNumber) {
-		String[] args = line.split(TAB);
-
+	protected Stage parseMappings(int lineNumber) {
 		String cls;
-		ClassMapping c;
 
 		String src;
 		String dst;
 		String desc;
 
-		switch (args[0]) {
+		switch (tokenizer.column(0)) {
 		case TinyV1Format.CLASS:
-			if (args.length != 3) {
-				throw new IllegalStateException("illegal number of arguments (" + args.length + ") for class mapping on line " + lineNumber + " - expected 3");
+			if (tokenizer.columnCount() != 3) {
+				throw new IllegalStateException("illegal number of arguments (" + tokenizer.columnCount() + ") for class mapping on line " + lineNumber + " - expected 3");
 			}
 
-			src = args[1];
-			dst = args[2];
+			src = tokenizer.column(1);
+			dst = tokenizer.column(2);
 
-			mappings.addClass(src, ClassMapping.getSimplified(dst));
+			classes.put(src, dst);
+
+			this.cls = src;
+			this.skipClass = !visitor.visitClass(src, dst);
 
 			break;
 		case TinyV1Format.FIELD:
-			if (args.length != 5) {
-				throw new IllegalStateException("illegal number of arguments (" + args.length + ") for field mapping on line " + lineNumber + " - expected 5");
+			if (tokenizer.columnCount() != 5) {
+				throw new IllegalStateException("illegal number of arguments (" + tokenizer.columnCount() + ") for field mapping on line " + lineNumber + " - expected 5");
 			}
 
-			cls = args[1];
-			desc = args[2];
-			src = args[3];
-			dst = args[4];
-
-			c = mappings.getClass(cls);
+			cls = tokenizer.column(1);
+			desc = tokenizer.column(2);
+			src = tokenizer.column(3);
+			dst = tokenizer.column(4);
 
-			if (c == null) {
+			if (!classes.containsKey(cls)) {
 				throw new IllegalStateException("cannot read field mapping for unknown class " + cls + " on line " + lineNumber);
 			}
 
-			c.addField(src, dst, desc);
+			if (enterClass(cls)) {
+				visitor.visitField(src, dst, desc);
+			}
 
 			break;
 		case TinyV1Format.METHOD:
-			if (args.length != 5) {
-				throw new IllegalStateException("illegal number of arguments (" + args.length + ") for field mapping on line " + lineNumber + " - expected 5");
+			if (tokenizer.columnCount() != 5) {
+				throw new IllegalStateException("illegal number of arguments (" + tokenizer.columnCount() + ") for field mapping on line " + lineNumber + " - expected 5");
 			}
 
-			cls = args[1];
-			desc = args[2];
-			src = args[3];
-			dst = args[4];
+			cls = tokenizer.column(1);
+			desc = tokenizer.column(2);
+			src = tokenizer.column(3);
+			dst = tokenizer.column(4);
 
-			c = mappings.getClass(cls);
-
-			if (c == null) {
+			if (!classes.containsKey(cls)) {
 				throw new IllegalStateException("cannot read method mapping for unknown class " + cls + " on line " + lineNumber);
 			}
 
-			c.addMethod(src, dst, desc);
+			if (enterClass(cls)) {
+				visitor.visitMethod(src, dst, desc);
+			}
 
 			break;
 		default:
-			throw new IllegalStateException("unknown mapping target " + args[0] + " on line " + lineNumber);
+			throw new IllegalStateException("unknown mapping target " + tokenizer.column(0) + " on line " + lineNumber);
 		}
 
 		return Stage.MAPPINGS;
 	}
+
+	private boolean enterClass(String cls) {
+		if (!cls.equals(this.cls)) {
+			// members are usually listed right after their class,
+			// but if not we have to visit that class again
+			this.cls = cls;
+			this.skipClass = !visitor.revisitClass(cls, classes.get(cls));
+		}
+
+		return !skipClass;
+	}
 }
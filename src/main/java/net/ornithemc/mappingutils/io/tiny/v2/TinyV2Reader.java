@@ -1,55 +1,83 @@
 package net.ornithemc.mappingutils.io.tiny.v2;
 
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.Path;
 
+import net.ornithemc.mappingutils.io.MappingFiles;
+import net.ornithemc.mappingutils.io.MappingNamespace;
+import net.ornithemc.mappingutils.io.MappingTarget;
 import net.ornithemc.mappingutils.io.Mappings;
-import net.ornithemc.mappingutils.io.Mappings.ClassMapping;
-import net.ornithemc.mappingutils.io.Mappings.FieldMapping;
-import net.ornithemc.mappingutils.io.Mappings.MethodMapping;
-import net.ornithemc.mappingutils.io.Mappings.ParameterMapping;
+import net.ornithemc.mappingutils.io.MappingsBuilder;
+import net.ornithemc.mappingutils.io.MappingsVisitor;
 import net.ornithemc.mappingutils.io.tiny.TinyMappingsReader;
+import net.ornithemc.mappingutils.io.tiny.TinyTokenizer;
 
 public class TinyV2Reader extends TinyMappingsReader {
 
 	public static Mappings read(Path path, boolean cacheById) throws IOException {
-		try (BufferedReader reader = new BufferedReader(new FileReader(path.toFile()))) {
-			return read(reader, cacheById);
+		return read(path, new Mappings(cacheById));
+	}
+
+	public static Mappings read(BufferedReader reader, boolean cacheById) throws IOException {
+		return read(reader, new Mappings(cacheById));
+	}
+
+	public static Mappings read(Path path, Mappings mappings) throws IOException {
+		accept(path, new MappingsBuilder(mappings));
+		return mappings;
+	}
+
+	public static Mappings read(BufferedReader reader, Mappings mappings) throws IOException {
+		accept(reader, new MappingsBuilder(mappings));
+		return mappings;
+	}
+
+	public static void accept(Path path, MappingsVisitor visitor) throws IOException {
+		try (BufferedReader reader = MappingFiles.reader(path)) {
+			accept(reader, visitor);
 		} catch (Exception e) {
 			throw new IOException("error reading " + path.toString(), e);
 		}
 	}
 
-	public static Mappings read(BufferedReader reader, boolean cacheById) throws IOException {
-		return new TinyV2Reader(reader, cacheById).read();
+	public static void accept(BufferedReader reader, MappingsVisitor visitor) throws IOException {
+		new TinyV2Reader(new TinyTokenizer(reader), visitor).accept();
+	}
+
+	/**
+	 * Create a reader for the given file that can be driven a line at a time
+	 * through {@link TinyMappingsReader#acceptLine()}. The reader must be
+	 * closed once it is no longer needed.
+	 */
+	public static TinyMappingsReader reader(Path path, MappingsVisitor visitor) throws IOException {
+		return new TinyV2Reader(new TinyTokenizer(MappingFiles.reader(path)), visitor);
 	}
 
 	private int indents;
+	// lines indented further than this are skipped
+	private int skipIndents = -1;
 
-	private ClassMapping c;
-	private FieldMapping f;
-	private MethodMapping m;
-	private ParameterMapping p;
+	private boolean c;
+	private boolean f;
+	private boolean m;
+	private boolean p;
 
-	private TinyV2Reader(BufferedReader reader, boolean cacheById) {
-		super(reader, new Mappings(cacheById));
+	private TinyV2Reader(TinyTokenizer tokenizer, MappingsVisitor visitor) {
+		super(tokenizer, visitor);
 	}
 
 	@Override
-	protected Stage parseHeader(String line, int lineNumber) {
-		String[] args = line.split(TAB);
-
-		if (args.length != 5) {
-			throw new IllegalStateException("illegal number of arguments (" + args.length + ") for header - expected 5");
+	protected Stage parseHeader(int lineNumber) {
+		if (tokenizer.columnCount() != 5) {
+			throw new IllegalStateException("illegal number of arguments (" + tokenizer.columnCount() + ") for header - expected 5");
 		}
 
-		String format = args[0];
-		String version = args[1];
-		String minorVersion = args[2];
-		String srcNamespace = args[3];
-		String dstNamespace = args[4];
+		String format = tokenizer.column(0);
+		String version = tokenizer.column(1);
+		String minorVersion = tokenizer.column(2);
+		String srcNamespace = tokenizer.column(3);
+		String dstNamespace = tokenizer.column(4);
 
 		if (!TinyV2Format.FORMAT.equals(format)) {
 			throw new IllegalStateException("cannot read mapping format " + format + " - expected " + TinyV2Format.FORMAT);
@@ -61,29 +89,30 @@ public class TinyV2Reader extends TinyMappingsReader {
 			throw new IllegalStateException("cannot read tiny 2 minor version " + minorVersion + " - expected " + TinyV2Format.MINOR_VERSION);
 		}
 
-		mappings.setSrcNamespace(srcNamespace);
-		mappings.setDstNamespace(dstNamespace);
+		visitor.visitHeader(new MappingNamespace(srcNamespace), new MappingNamespace(dstNamespace));
 
 		return Stage.MAPPINGS;
 	}
 
 	@Override
-	protected Stage parseMappings(String line, int lineNumber) {
-		String[] args = line.split(TAB);
+	protected Stage parseMappings(int lineNumber) {
+		indents = tokenizer.indents();
 
-		for (indents = 0; indents < args.length; indents++) {
-			if (!args[indents].isEmpty()) {
-				break;
+		if (skipIndents >= 0) {
+			if (indents > skipIndents) {
+				return Stage.MAPPINGS;
 			}
+
+			skipIndents = -1;
 		}
 
-		int ac = args.length - indents;
+		int ac = tokenizer.columnCount() - indents;
 
 		String src;
 		String dst;
 		String desc;
 
-		switch (args[indents]) {
+		switch (tokenizer.column(indents)) {
 		case TinyV2Format.COMMENT:
 //		case TinyV2Format.CLASS: // classes and comments use the same identifier
 			// first check if this line is a comment
@@ -93,11 +122,11 @@ public class TinyV2Reader extends TinyMappingsReader {
 				if (ac != 2) {
 					throw new IllegalStateException("illegal number of arguments (" + ac + ") for class javadocs on line " + lineNumber + " - expected 2");
 				}
-				if (c == null) {
+				if (!c) {
 					throw new IllegalStateException("cannot read class javadocs on line " + lineNumber + " - not in a class?");
 				}
 
-				c.setJavadoc(args[1 + indents]);
+				visitor.visitJavadoc(MappingTarget.CLASS, tokenizer.column(1 + indents));
 
 				break;
 			}
@@ -105,11 +134,11 @@ public class TinyV2Reader extends TinyMappingsReader {
 				if (ac != 2) {
 					throw new IllegalStateException("illegal number of arguments (" + ac + ") for field/method javadocs one line " + lineNumber + " - expected 2");
 				}
-				if (f == null && m == null) {
+				if (!f && !m) {
 					throw new IllegalStateException("cannot read field/method javadocs on line " + lineNumber + " - not in a field or method?");
 				}
 
-				(f == null ? m : f).setJavadoc(args[1 + indents]);
+				visitor.visitJavadoc(f ? MappingTarget.FIELD : MappingTarget.METHOD, tokenizer.column(1 + indents));
 
 				break;
 			}
@@ -117,11 +146,11 @@ public class TinyV2Reader extends TinyMappingsReader {
 				if (ac != 2) {
 					throw new IllegalStateException("illegal number of arguments (" + ac + ") for parameter javadocs on line " + lineNumber + " - expected 2");
 				}
-				if (p == null) {
+				if (!p) {
 					throw new IllegalStateException("cannot read parameter javadocs on line " + lineNumber + " - not in a parameter?");
 				}
 
-				p.setJavadoc(args[1 + indents]);
+				visitor.visitJavadoc(MappingTarget.PARAMETER, tokenizer.column(1 + indents));
 
 				break;
 			}
@@ -134,13 +163,17 @@ public class TinyV2Reader extends TinyMappingsReader {
 				throw new IllegalStateException("illegal number of arguments (" + ac + ") for class mapping on line " + lineNumber + " - expected 3");
 			}
 
-			src = args[1 + indents];
-			dst = args[2 + indents];
+			src = tokenizer.column(1 + indents);
+			dst = tokenizer.column(2 + indents);
 
-			c = mappings.addClass(src, ClassMapping.getSimplified(dst));
-			f = null;
-			m = null;
-			p = null;
+			c = true;
+			f = false;
+			m = false;
+			p = false;
+
+			if (!visitor.visitClass(src, dst)) {
+				skipIndents = TinyV2Format.CLASS_INDENTS;
+			}
 
 			break;
 		case TinyV2Format.FIELD:
@@ -150,17 +183,21 @@ public class TinyV2Reader extends TinyMappingsReader {
 			if (ac != 4) {
 				throw new IllegalStateException("illegal number of arguments (" + ac + ") for field mapping on line " + lineNumber + " - expected 4");
 			}
-			if (c == null) {
+			if (!c) {
 				throw new IllegalStateException("cannot read field mapping on line " + lineNumber + " - not in a class?");
 			}
 
-			desc = args[1 + indents];
-			src = args[2 + indents];
-			dst = args[3 + indents];
+			desc = tokenizer.column(1 + indents);
+			src = tokenizer.column(2 + indents);
+			dst = tokenizer.column(3 + indents);
 
-			f = c.addField(src, dst, desc);
-			m = null;
-			p = null;
+			f = true;
+			m = false;
+			p = false;
+
+			if (!visitor.visitField(src, dst, desc)) {
+				skipIndents = TinyV2Format.FIELD_INDENTS;
+			}
 
 			break;
 		case TinyV2Format.METHOD:
@@ -170,17 +207,21 @@ public class TinyV2Reader extends TinyMappingsReader {
 			if (ac != 4) {
 				throw new IllegalStateException("illegal number of arguments (" + ac + ") for method mapping on line " + lineNumber + " - expected 4");
 			}
-			if (c == null) {
+			if (!c) {
 				throw new IllegalStateException("cannot read method mapping on line " + lineNumber + " - not in a class?");
 			}
 
-			desc = args[1 + indents];
-			src = args[2 + indents];
-			dst = args[3 + indents];
+			desc = tokenizer.column(1 + indents);
+			src = tokenizer.column(2 + indents);
+			dst = tokenizer.column(3 + indents);
+
+			m = true;
+			f = false;
+			p = false;
 
-			m = c.addMethod(src, dst, desc);
-			f = null;
-			p = null;
+			if (!visitor.visitMethod(src, dst, desc)) {
+				skipIndents = TinyV2Format.METHOD_INDENTS;
+			}
 
 			break;
 		case TinyV2Format.PARAMETER:
@@ -190,26 +231,29 @@ public class TinyV2Reader extends TinyMappingsReader {
 			if (ac != 4) {
 				throw new IllegalStateException("illegal number of arguments (" + ac + ") for parameter mapping on line " + lineNumber + " - expected 4");
 			}
-			if (m == null) {
+			if (!m) {
 				throw new IllegalStateException("cannot read paremter mapping on line " + lineNumber + " - not in a method?");
 			}
 
-			String rawIndex = args[1 + indents];
-			src = args[2 + indents]; // we could ignore this argument
-			dst = args[3 + indents];
+			src = tokenizer.column(2 + indents); // we could ignore this argument
+			dst = tokenizer.column(3 + indents);
 
-			int index = Integer.parseInt(rawIndex);
+			int index = tokenizer.columnAsInt(1 + indents);
 
 			if (index < 0) {
 				throw new IllegalStateException("illegal parameter index " + index + " on line " + lineNumber + " - cannot be negative!");
 			}
 
-			p = m.addParameter(src, dst, index);
-			f = null;
+			p = true;
+			f = false;
+
+			if (!visitor.visitParameter(src, dst, index)) {
+				skipIndents = TinyV2Format.PARAMETER_INDENTS;
+			}
 
 			break;
 		default:
-			throw new IllegalStateException("unknown mapping target " + args[indents] + " on line " + lineNumber);
+			throw new IllegalStateException("unknown mapping target " + tokenizer.column(indents) + " on line " + lineNumber);
 		}
 
 		return Stage.MAPPINGS;
@@ -1,10 +1,10 @@
 package net.ornithemc.mappingutils.io.tiny.v2;
 
 import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Path;
 
+import net.ornithemc.mappingutils.io.MappingFiles;
 import net.ornithemc.mappingutils.io.Mappings;
 import net.ornithemc.mappingutils.io.Mappings.ClassMapping;
 import net.ornithemc.mappingutils.io.Mappings.FieldMapping;
@@ -16,7 +16,7 @@ import net.ornithemc.mappingutils.io.tiny.TinyMappingsWriter;
 public class TinyV2Writer extends TinyMappingsWriter {
 
 	public static void write(Path path, Mappings mappings) throws IOException {
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(path.toFile()))) {
+		try (BufferedWriter writer = MappingFiles.writer(path)) {
 			write(writer, mappings);
 		} catch (Exception e) {
 			throw new IOException("error writing " + path.toString(), e);